@@ -0,0 +1,74 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.benchmark;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.LibroDAOAutocompletado;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.LibroDAOImpl;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Sugerencia;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * AutocompletadoBenchmark - Top-K de compleciones: trie en memoria frente a LIKE 'prefijo%' en SQLite
+ * Los prefijos van de muy comunes ("a", "t") a casi únicos ("titulo de prueba 12")
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AutocompletadoBenchmark {
+
+    private static final String[] PREFIJOS = {
+            "a", "t", "au", "autor 4", "autor 12", "tit", "titulo de prueba 1", "titulo de prueba 12", "zz"
+    };
+
+    @Param({"100000"})
+    public int tamanoTabla;
+
+    @Param({"8"})
+    public int limite;
+
+    private BaseDatosTemporal bd;
+    private LibroDAOImpl sql;
+    private LibroDAOAutocompletado trie;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        bd = BaseDatosTemporal.crear(tamanoTabla);
+        sql = new LibroDAOImpl();
+        trie = new LibroDAOAutocompletado(sql, 1_000_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() {
+        bd.borrar();
+    }
+
+    @Benchmark
+    public List<Sugerencia> trie() {
+        return trie.autocomplete(prefijo(), limite);
+    }
+
+    @Benchmark
+    public List<Sugerencia> sqlite() {
+        return sql.autocomplete(prefijo(), limite);
+    }
+
+    private static String prefijo() {
+        return PREFIJOS[ThreadLocalRandom.current().nextInt(PREFIJOS.length)];
+    }
+}
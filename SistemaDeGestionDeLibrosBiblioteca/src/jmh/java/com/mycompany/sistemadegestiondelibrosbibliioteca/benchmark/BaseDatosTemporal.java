@@ -0,0 +1,75 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.benchmark;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.config.DatabaseConfig;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.LibroDAOImpl;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.entity.Libro;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BaseDatosTemporal - BD SQLite desechable para los benchmarks
+ * Crea un archivo temporal, apunta DatabaseConfig a él y lo llena con N libros
+ */
+final class BaseDatosTemporal {
+
+    private static final int AUTORES = 500;
+
+    private final Path directorio;
+
+    private BaseDatosTemporal(Path directorio) {
+        this.directorio = directorio;
+    }
+
+    /**
+     * Crear una BD nueva con 'filas' libros (ids 1..filas)
+     */
+    static BaseDatosTemporal crear(int filas) throws IOException, SQLException {
+        DatabaseConfig.cerrarConexion();
+
+        Path directorio = Files.createTempDirectory("biblioteca-bench");
+        System.setProperty("biblioteca.db.archivo", directorio.resolve("biblioteca.db").toString());
+        DatabaseConfig.inicializar();
+
+        LibroDAOImpl dao = new LibroDAOImpl();
+        List<Libro> lote = new ArrayList<>(10_000);
+        for (int i = 0; i < filas; i++) {
+            lote.add(libro(i));
+            if (lote.size() == 10_000) {
+                dao.createAll(lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            dao.createAll(lote);
+        }
+
+        return new BaseDatosTemporal(directorio);
+    }
+
+    /**
+     * Libro determinista número i
+     */
+    static Libro libro(long i) {
+        return new Libro(null, "Titulo de prueba " + i, "Autor " + (i % AUTORES), 1900 + (int) (i % 120), true);
+    }
+
+    /**
+     * Cerrar el pool y borrar los archivos
+     */
+    void borrar() {
+        DatabaseConfig.cerrarConexion();
+        System.clearProperty("biblioteca.db.archivo");
+        File[] archivos = directorio.toFile().listFiles();
+        if (archivos != null) {
+            for (File archivo : archivos) {
+                archivo.delete();
+            }
+        }
+        directorio.toFile().delete();
+    }
+}
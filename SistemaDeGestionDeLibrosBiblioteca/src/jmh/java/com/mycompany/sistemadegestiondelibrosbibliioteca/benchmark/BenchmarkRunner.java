@@ -0,0 +1,39 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.benchmark;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * BenchmarkRunner - Ejecuta los benchmarks una vez por cada número de hilos
+ * Uso: java -Dhilos=1,4,8 -jar target/benchmarks.jar [opciones JMH, p. ej. LibroDAOBenchmark -prof gc]
+ * Sin -Dhilos se comporta como org.openjdk.jmh.Main
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions lineaComandos = new CommandLineOptions(args);
+        String hilos = System.getProperty("hilos");
+
+        if (hilos == null || hilos.isBlank()) {
+            new Runner(lineaComandos).run();
+            return;
+        }
+
+        for (String valor : hilos.split(",")) {
+            int n = Integer.parseInt(valor.trim());
+            Options opciones = new OptionsBuilder()
+                    .parent(lineaComandos)
+                    .threads(n)
+                    .build();
+            System.out.println("=== Benchmarks con " + n + " hilo(s) ===");
+            new Runner(opciones).run();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.benchmark;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.util.NormalizadorTexto;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * EquivalenciaNormalizador - Comprueba que NormalizadorTexto.sanitizar da la misma salida que la
+ * cadena de replaceAll a la que sustituyó
+ * Recorre el corpus corpus-normalizador.txt y después textos aleatorios (semilla fija) armados con
+ * fragmentos conflictivos: palabras SQL partidas, caracteres peligrosos y todos los tipos de espacio.
+ * Termina con código 1 si algún texto difiere.
+ *
+ * Uso: java -cp target/benchmarks.jar com.mycompany.sistemadegestiondelibrosbibliioteca.benchmark.EquivalenciaNormalizador [aleatorios] [semilla]
+ */
+public final class EquivalenciaNormalizador {
+
+    private static final String CORPUS = "/corpus-normalizador.txt";
+
+    private static final String[] FRAGMENTOS = {
+            "select", "SeLeCt", "sel", "ect", "drop", "DR", "op", "script", "scr", "ipt", "insert", "upd", "ate",
+            "delete", "DEL", "create", "alter", "AL", "ter", "<", ">", "&", "'", "\"", " ", "  ", "\t", "\n", "\r",
+            "\f", "\u000B", "\u00A0", "\u2028", "\u0085", "\u001F", "\u0000", "a", "Z", "7", "á", "ñ", "\u0130", "\u017F",
+            "\u212A", "de", "la", "Cien años"
+    };
+
+    private static final int MAX_DIFERENCIAS_MOSTRADAS = 20;
+
+    private EquivalenciaNormalizador() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int aleatorios = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        long semilla = args.length > 1 ? Long.parseLong(args[1]) : 20240601L;
+
+        List<String> casos = leerCorpus();
+        int delCorpus = casos.size() + 2;
+        casos.add(null);
+        casos.add("");
+
+        Random random = new Random(semilla);
+        for (int i = 0; i < aleatorios; i++) {
+            StringBuilder texto = new StringBuilder();
+            int piezas = random.nextInt(12);
+            for (int p = 0; p < piezas; p++) {
+                texto.append(FRAGMENTOS[random.nextInt(FRAGMENTOS.length)]);
+            }
+            casos.add(texto.toString());
+        }
+
+        int diferencias = 0;
+        for (String caso : casos) {
+            String esperado = regex(caso);
+            String obtenido = NormalizadorTexto.sanitizar(caso);
+            if (!esperado.equals(obtenido)) {
+                if (++diferencias <= MAX_DIFERENCIAS_MOSTRADAS) {
+                    System.out.println("DIFERENCIA en " + visible(caso) + ": regex " + visible(esperado)
+                            + ", una pasada " + visible(obtenido));
+                }
+            }
+        }
+
+        System.out.println(casos.size() + " textos comparados (" + delCorpus + " del corpus, " + aleatorios
+                + " aleatorios con semilla " + semilla + ")");
+        if (diferencias > 0) {
+            System.out.println("FALLO: " + diferencias + " textos con salida distinta");
+            System.exit(1);
+        }
+        System.out.println("OK: misma salida que la cadena de replaceAll en todos los textos");
+    }
+
+    /**
+     * Implementación anterior de LibroDAOImpl.sanitizarTexto, como referencia
+     */
+    static String regex(String texto) {
+        if (texto == null || texto.trim().isEmpty()) {
+            return "";
+        }
+        return texto.trim()
+                .replaceAll("\\s+", " ")
+                .replaceAll("[<>\"'&]", "")
+                .replaceAll("(?i)(script|select|insert|update|delete|drop|create|alter)", "");
+    }
+
+    // ========================================================================
+    // MÉTODOS AUXILIARES
+    // ========================================================================
+
+    private static List<String> leerCorpus() throws IOException {
+        InputStream recurso = EquivalenciaNormalizador.class.getResourceAsStream(CORPUS);
+        if (recurso == null) {
+            throw new IOException("No se encuentra " + CORPUS + " en el classpath");
+        }
+
+        List<String> casos = new ArrayList<>();
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(recurso, StandardCharsets.UTF_8))) {
+            for (String linea; (linea = lector.readLine()) != null; ) {
+                if (!linea.isEmpty() && !linea.startsWith("#")) {
+                    casos.add(desescapar(linea));
+                }
+            }
+        }
+        return casos;
+    }
+
+    private static String desescapar(String linea) {
+        StringBuilder texto = new StringBuilder(linea.length());
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (c != '\\' || i + 1 == linea.length()) {
+                texto.append(c);
+                continue;
+            }
+            char escape = linea.charAt(++i);
+            switch (escape) {
+                case 't' -> texto.append('\t');
+                case 'n' -> texto.append('\n');
+                case 'r' -> texto.append('\r');
+                case 'f' -> texto.append('\f');
+                case 'u' -> {
+                    texto.append((char) Integer.parseInt(linea.substring(i + 1, i + 5), 16));
+                    i += 4;
+                }
+                default -> texto.append(escape);
+            }
+        }
+        return texto.toString();
+    }
+
+    // Texto con los caracteres invisibles escapados, para el informe
+    private static String visible(String texto) {
+        if (texto == null) {
+            return "null";
+        }
+        StringBuilder visible = new StringBuilder("\"");
+        for (char c : texto.toCharArray()) {
+            if (c < ' ' || (c >= 0x7F && c <= 0xA0) || c == '\u2028') {
+                visible.append(String.format("\\u%04X", (int) c));
+            } else {
+                visible.append(c);
+            }
+        }
+        return visible.append('"').toString();
+    }
+}
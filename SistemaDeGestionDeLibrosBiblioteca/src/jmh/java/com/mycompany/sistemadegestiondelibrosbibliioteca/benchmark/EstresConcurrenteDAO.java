@@ -0,0 +1,176 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.benchmark;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.ILibroDAO;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.LibroDAOImpl;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.entity.Libro;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * EstresConcurrenteDAO - Martillea LibroDAOImpl desde N hilos y verifica el resultado
+ * Cada hilo inserta, lee, actualiza y borra sus propios libros mientras otros leen en paralelo.
+ * Al final comprueba, y si no se cumple termina con código 1:
+ *   - ningún error, y en particular ningún SQLITE_BUSY / "database is locked"
+ *   - filas finales = iniciales + insertadas - borradas
+ *   - cada libro superviviente con versión 2 (alta + una actualización) y el año de su hilo
+ *   - ningún libro borrado sigue en la BD; los iniciales siguen en versión 1
+ *
+ * Uso: java -cp target/benchmarks.jar com.mycompany.sistemadegestiondelibrosbibliioteca.benchmark.EstresConcurrenteDAO [hilos] [operaciones]
+ */
+public final class EstresConcurrenteDAO {
+
+    private EstresConcurrenteDAO() {
+    }
+
+    private static final int FILAS_INICIALES = 1000;
+
+    public static void main(String[] args) throws Exception {
+        int hilos = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int operaciones = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        BaseDatosTemporal bd = BaseDatosTemporal.crear(FILAS_INICIALES);
+        ILibroDAO dao = new LibroDAOImpl();
+
+        ConcurrentLinkedQueue<Throwable> errores = new ConcurrentLinkedQueue<>();
+        AtomicLong insertados = new AtomicLong();
+        AtomicLong borrados = new AtomicLong();
+        AtomicLong lecturas = new AtomicLong();
+        // id -> año esperado de los que deben sobrevivir; ids borrados
+        Map<Long, Integer> supervivientes = new ConcurrentHashMap<>();
+        Map<Long, Boolean> eliminados = new ConcurrentHashMap<>();
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Thread> trabajadores = new ArrayList<>();
+
+        for (int h = 0; h < hilos; h++) {
+            final int hilo = h;
+            Thread trabajador = new Thread(() -> {
+                try {
+                    salida.await();
+                    for (int i = 0; i < operaciones; i++) {
+                        long n = 1_000_000L * (hilo + 1) + i;
+                        Libro libro = dao.create(BaseDatosTemporal.libro(n));
+                        insertados.incrementAndGet();
+
+                        Libro leido = dao.read(libro.getId())
+                                .orElseThrow(() -> new IllegalStateException("Escritura perdida: " + libro.getId()));
+                        leido.setAnoPublicacion(2000 + hilo);
+                        dao.update(leido);
+
+                        int ano = dao.read(libro.getId()).orElseThrow().getAnoPublicacion();
+                        if (ano != 2000 + hilo) {
+                            throw new IllegalStateException("Actualización perdida en " + libro.getId());
+                        }
+
+                        // Un tercio de los libros se borra; el resto debe sobrevivir
+                        if (i % 3 == 0) {
+                            if (!dao.delete(libro.getId())) {
+                                throw new IllegalStateException("No se pudo borrar " + libro.getId());
+                            }
+                            borrados.incrementAndGet();
+                            eliminados.put(libro.getId(), true);
+                        } else {
+                            supervivientes.put(libro.getId(), 2000 + hilo);
+                        }
+
+                        dao.read(1 + ThreadLocalRandom.current().nextLong(FILAS_INICIALES));
+                        lecturas.addAndGet(3);
+                    }
+                } catch (Throwable e) {
+                    errores.add(e);
+                }
+            }, "estres-" + h);
+            trabajador.start();
+            trabajadores.add(trabajador);
+        }
+
+        long inicio = System.nanoTime();
+        salida.countDown();
+        for (Thread trabajador : trabajadores) {
+            trabajador.join();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        Map<Long, Libro> finales = new HashMap<>();
+        try (Stream<Libro> todos = dao.streamAll()) {
+            todos.forEach(libro -> finales.put(libro.getId(), libro));
+        }
+        bd.borrar();
+
+        System.out.printf("%d hilos x %d iteraciones en %.2f s: %d inserciones, %d borrados, %d lecturas%n",
+                hilos, operaciones, segundos, insertados.get(), borrados.get(), lecturas.get());
+
+        List<String> fallos = new ArrayList<>();
+        long ocupada = errores.stream().filter(EstresConcurrenteDAO::esBdOcupada).count();
+        comprobar(fallos, ocupada == 0, ocupada + " errores SQLITE_BUSY / database is locked");
+        comprobar(fallos, errores.size() == ocupada, (errores.size() - ocupada) + " otros errores");
+
+        long esperadas = FILAS_INICIALES + insertados.get() - borrados.get();
+        comprobar(fallos, finales.size() == esperadas,
+                "filas esperadas " + esperadas + ", filas en la BD " + finales.size());
+        comprobar(fallos, supervivientes.size() + eliminados.size() == insertados.get(),
+                "libros seguidos " + (supervivientes.size() + eliminados.size()) + " de " + insertados.get());
+
+        long versionInicial = 0;
+        long versionActualizada = 0;
+        long anoIncorrecto = 0;
+        long perdidos = 0;
+        long resucitados = eliminados.keySet().stream().filter(finales::containsKey).count();
+        for (long id = 1; id <= FILAS_INICIALES; id++) {
+            Libro libro = finales.get(id);
+            if (libro == null || libro.getVersion() != 1) {
+                versionInicial++;
+            }
+        }
+        for (Map.Entry<Long, Integer> esperado : supervivientes.entrySet()) {
+            Libro libro = finales.get(esperado.getKey());
+            if (libro == null) {
+                perdidos++;
+            } else {
+                versionActualizada += libro.getVersion() != 2 ? 1 : 0;
+                anoIncorrecto += esperado.getValue().equals(libro.getAnoPublicacion()) ? 0 : 1;
+            }
+        }
+        comprobar(fallos, perdidos == 0, perdidos + " libros supervivientes no están en la BD");
+        comprobar(fallos, resucitados == 0, resucitados + " libros borrados siguen en la BD");
+        comprobar(fallos, versionActualizada == 0, versionActualizada + " libros actualizados sin versión 2");
+        comprobar(fallos, anoIncorrecto == 0, anoIncorrecto + " libros actualizados con otro año");
+        comprobar(fallos, versionInicial == 0, versionInicial + " libros iniciales ausentes o con versión distinta de 1");
+
+        System.out.println("Filas: " + finales.size() + " (" + supervivientes.size() + " supervivientes comprobados, "
+                + eliminados.size() + " borrados comprobados)");
+
+        for (Throwable error : errores) {
+            error.printStackTrace();
+        }
+        if (!fallos.isEmpty()) {
+            fallos.forEach(fallo -> System.out.println("FALLO: " + fallo));
+            System.exit(1);
+        }
+        System.out.println("OK: sin escrituras perdidas, versiones correctas y ningún error de BD ocupada");
+    }
+
+    private static void comprobar(List<String> fallos, boolean condicion, String mensaje) {
+        if (!condicion) {
+            fallos.add(mensaje);
+        }
+    }
+
+    // SQLITE_BUSY en cualquier punto de la cadena de causas
+    private static boolean esBdOcupada(Throwable error) {
+        for (Throwable causa = error; causa != null; causa = causa.getCause()) {
+            String mensaje = causa.getMessage();
+            if (mensaje != null && (mensaje.contains("SQLITE_BUSY") || mensaje.contains("database is locked"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,111 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.benchmark;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.ILibroDAO;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.LibroDAOImpl;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.entity.Libro;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * LibroDAOBenchmark - Operaciones CRUD de LibroDAOImpl contra SQLite real
+ * El tamaño de la tabla es un @Param; los hilos se eligen al lanzar (-t o BenchmarkRunner)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LibroDAOBenchmark {
+
+    @Param({"1000", "100000"})
+    public int tamanoTabla;
+
+    private BaseDatosTemporal bd;
+    private ILibroDAO dao;
+
+    // Los libros nuevos empiezan tras los sembrados: nunca chocan con UNIQUE(titulo, autor)
+    private final AtomicLong siguiente = new AtomicLong(10_000_000L);
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        bd = BaseDatosTemporal.crear(tamanoTabla);
+        dao = new LibroDAOImpl();
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() {
+        bd.borrar();
+    }
+
+    /**
+     * Estado por hilo: un libro recién insertado listo para borrar
+     */
+    @State(Scope.Thread)
+    public static class LibroParaBorrar {
+        Long id;
+
+        @Setup(Level.Invocation)
+        public void insertar(LibroDAOBenchmark estado) {
+            id = estado.dao.create(BaseDatosTemporal.libro(estado.siguiente.incrementAndGet())).getId();
+        }
+    }
+
+    @Benchmark
+    public Optional<Libro> read() {
+        return dao.read(idAleatorio());
+    }
+
+    @Benchmark
+    public boolean exists() {
+        long i = ThreadLocalRandom.current().nextLong(tamanoTabla);
+        Libro libro = BaseDatosTemporal.libro(i);
+        return dao.exists(libro.getTitulo(), libro.getAutor());
+    }
+
+    @Benchmark
+    public Libro create() {
+        // La tabla crece durante la medición; con miles de filas sembradas el efecto es despreciable
+        return dao.create(BaseDatosTemporal.libro(siguiente.incrementAndGet()));
+    }
+
+    @Benchmark
+    public Libro update() {
+        long id = idAleatorio();
+        Libro libro = BaseDatosTemporal.libro(id - 1);
+        libro.setId(id);
+        libro.setAnoPublicacion(2000);
+        return dao.update(libro);
+    }
+
+    @Benchmark
+    public boolean delete(LibroParaBorrar libro) {
+        return dao.delete(libro.id);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Libro> readAll() {
+        return dao.readAll();
+    }
+
+    private long idAleatorio() {
+        return 1 + ThreadLocalRandom.current().nextLong(tamanoTabla);
+    }
+}
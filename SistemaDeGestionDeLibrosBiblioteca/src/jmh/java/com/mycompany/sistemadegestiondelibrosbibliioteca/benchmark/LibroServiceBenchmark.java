@@ -0,0 +1,62 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.benchmark;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.LibroDTO;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.service.LibroService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * LibroServiceBenchmark - Casos de uso de LibroService (validación + DAO + DTO)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LibroServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    public int tamanoTabla;
+
+    private BaseDatosTemporal bd;
+    private LibroService service;
+    private final AtomicLong siguiente = new AtomicLong(10_000_000L);
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        bd = BaseDatosTemporal.crear(tamanoTabla);
+        service = new LibroService();
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() {
+        bd.borrar();
+    }
+
+    @Benchmark
+    public LibroDTO agregarLibro() {
+        long i = siguiente.incrementAndGet();
+        return service.agregarLibro("Titulo de prueba " + i, "Autor " + (i % 500), "1999");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<LibroDTO> obtenerTodosLosLibros() {
+        return service.obtenerTodosLosLibros();
+    }
+}
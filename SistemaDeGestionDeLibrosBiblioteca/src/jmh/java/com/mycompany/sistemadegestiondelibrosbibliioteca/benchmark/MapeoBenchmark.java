@@ -0,0 +1,130 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.benchmark;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.config.DatabaseConfig;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.ILibroDAO;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.LibroDAOImpl;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.ProyeccionLibro;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.LibroDTO;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.entity.Libro;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * MapeoBenchmark - Coste de convertir las filas de readAll en objetos (lanzar con -prof gc)
+ * porNombre reproduce el mapeo anterior (columnas por nombre, getString, entidad y luego DTO)
+ * textoGetString / textoGetBytes aíslan la lectura de titulo y autor con cada método del driver
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapeoBenchmark {
+
+    private static final ProyeccionLibro<LibroDTO> PROYECCION_DTO =
+            (id, titulo, autor, ano, disponible, version) -> new LibroDTO(id, titulo, autor, ano, version);
+
+    @Param({"100000"})
+    public int tamanoTabla;
+
+    private BaseDatosTemporal bd;
+    private ILibroDAO dao;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        bd = BaseDatosTemporal.crear(tamanoTabla);
+        dao = new LibroDAOImpl();
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() {
+        bd.borrar();
+    }
+
+    @Benchmark
+    public List<LibroDTO> porNombre() throws SQLException {
+        List<LibroDTO> libros = new ArrayList<>();
+        try (Connection conn = DatabaseConfig.getConexionLectura();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT id, titulo, autor, ano_publicacion, disponible, version FROM libros ORDER BY id")) {
+            while (rs.next()) {
+                Libro libro = new Libro();
+                libro.setId(rs.getLong("id"));
+                libro.setTitulo(rs.getString("titulo"));
+                libro.setAutor(rs.getString("autor"));
+                libro.setAnoPublicacion(rs.getInt("ano_publicacion"));
+                libro.setDisponible(rs.getBoolean("disponible"));
+                libro.setVersion(rs.getLong("version"));
+                libros.add(aDTO(libro));
+            }
+        }
+        return libros;
+    }
+
+    @Benchmark
+    public List<LibroDTO> entidadYDTO() {
+        // readAll() actual seguido de la conversión que hacía el servicio
+        List<Libro> entidades = dao.readAll();
+        List<LibroDTO> libros = new ArrayList<>(entidades.size());
+        for (Libro libro : entidades) {
+            libros.add(aDTO(libro));
+        }
+        return libros;
+    }
+
+    @Benchmark
+    public List<LibroDTO> proyeccionDTO() {
+        return dao.readAll(PROYECCION_DTO);
+    }
+
+    @Benchmark
+    public void textoGetString(Blackhole bh) throws SQLException {
+        try (Connection conn = DatabaseConfig.getConexionLectura();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT titulo, autor FROM libros ORDER BY id")) {
+            while (rs.next()) {
+                bh.consume(rs.getString(1));
+                bh.consume(rs.getString(2));
+            }
+        }
+    }
+
+    @Benchmark
+    public void textoGetBytes(Blackhole bh) throws SQLException {
+        try (Connection conn = DatabaseConfig.getConexionLectura();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT titulo, autor FROM libros ORDER BY id")) {
+            while (rs.next()) {
+                bh.consume(new String(rs.getBytes(1), StandardCharsets.UTF_8));
+                bh.consume(new String(rs.getBytes(2), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private static LibroDTO aDTO(Libro libro) {
+        return new LibroDTO(libro.getId(), libro.getTitulo(), libro.getAutor(),
+                libro.getAnoPublicacion(), libro.getVersion());
+    }
+}
@@ -0,0 +1,90 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.benchmark;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.LibroNoEncontradoException;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.Resultado;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.LibroDTO;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.service.LibroService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ResultadoBenchmark - Coste de un GET /libros/{id} que no encuentra el libro
+ * resultado: Resultado tipado, sin excepción; excepcion: API con excepciones (sin traza);
+ * excepcionConTraza: el camino anterior (RuntimeException "(Error 404)" y contains("404"))
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResultadoBenchmark {
+
+    @Param({"100000"})
+    public int tamanoTabla;
+
+    private BaseDatosTemporal bd;
+    private LibroService service;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        bd = BaseDatosTemporal.crear(tamanoTabla);
+        service = new LibroService();
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() {
+        bd.borrar();
+    }
+
+    // IDs por encima de la tabla: siempre fallan
+    private long idInexistente() {
+        return tamanoTabla + 1 + ThreadLocalRandom.current().nextLong(tamanoTabla);
+    }
+
+    @Benchmark
+    public int encontrado() {
+        return service.buscarLibroPorId(1 + ThreadLocalRandom.current().nextLong(tamanoTabla)).getCodigoHttp();
+    }
+
+    @Benchmark
+    public int resultado() {
+        Resultado<LibroDTO> resultado = service.buscarLibroPorId(idInexistente());
+        return resultado.getCodigoHttp();
+    }
+
+    @Benchmark
+    public int excepcion() {
+        try {
+            return service.obtenerLibroPorId(idInexistente()) != null ? 200 : 500;
+        } catch (LibroNoEncontradoException e) {
+            return 404;
+        }
+    }
+
+    @Benchmark
+    public int excepcionConTraza() {
+        long id = idInexistente();
+        try {
+            if (!service.buscarLibroPorId(id).isEncontrado()) {
+                throw new RuntimeException("Libro no encontrado con ID: " + id + " (Error 404)");
+            }
+            return 200;
+        } catch (RuntimeException e) {
+            return e.getMessage().contains("404") ? 404 : 500;
+        }
+    }
+}
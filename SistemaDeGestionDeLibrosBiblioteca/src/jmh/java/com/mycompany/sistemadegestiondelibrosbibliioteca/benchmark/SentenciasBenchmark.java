@@ -0,0 +1,77 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.benchmark;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.ILibroDAO;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.LibroDAOImpl;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.entity.Libro;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * SentenciasBenchmark - Coste de preparar la SQL en cada llamada frente a reutilizarla
+ * sentencias = 0 desactiva la caché de PreparedStatements del pool; 64 es el valor por defecto
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SentenciasBenchmark {
+
+    @Param({"0", "64"})
+    public int sentencias;
+
+    @Param({"100000"})
+    public int tamanoTabla;
+
+    private BaseDatosTemporal bd;
+    private ILibroDAO dao;
+
+    private final AtomicLong siguiente = new AtomicLong(10_000_000L);
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        // DatabaseConfig lee la propiedad en cada inicialización
+        System.setProperty("biblioteca.pool.sentencias", String.valueOf(sentencias));
+        bd = BaseDatosTemporal.crear(tamanoTabla);
+        dao = new LibroDAOImpl();
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() {
+        bd.borrar();
+        System.clearProperty("biblioteca.pool.sentencias");
+    }
+
+    @Benchmark
+    public Optional<Libro> read() {
+        return dao.read(1 + ThreadLocalRandom.current().nextLong(tamanoTabla));
+    }
+
+    @Benchmark
+    public boolean exists() {
+        Libro libro = BaseDatosTemporal.libro(ThreadLocalRandom.current().nextLong(tamanoTabla));
+        return dao.exists(libro.getTitulo(), libro.getAutor());
+    }
+
+    @Benchmark
+    public Libro create() {
+        // Incluye el exists() previo: dos sentencias por inserción
+        return dao.create(BaseDatosTemporal.libro(siguiente.incrementAndGet()));
+    }
+}
@@ -0,0 +1,234 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.config;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.util.Log;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CacheSentencias - PreparedStatements reutilizables de una conexión física
+ * LRU acotada por texto SQL: SQLite solo analiza y planifica cada consulta la primera vez.
+ * Se entrega un proxy cuyo close() limpia parámetros y cursor y devuelve la sentencia a la
+ * caché. Una sentencia en uso no se comparte: si se pide otra vez se prepara una aparte.
+ * Solo la usa quien tiene prestada la conexión, así que no necesita sincronización.
+ */
+final class CacheSentencias {
+
+    private static final Log LOG = Log.de(CacheSentencias.class);
+
+    // Ajustes por sentencia que no se restablecen al devolverla: quien los toca se queda con una sentencia propia
+    private static final Set<String> AJUSTES = Set.of("setFetchSize", "setFetchDirection", "setMaxRows",
+            "setLargeMaxRows", "setMaxFieldSize", "setQueryTimeout", "setEscapeProcessing", "setPoolable",
+            "setCursorName", "closeOnCompletion");
+
+    private final int capacidad;
+    private final LongAdder reutilizadas;
+    private final LongAdder preparadas;
+
+    // accessOrder = true: el primer elemento es el menos usado recientemente
+    private final LinkedHashMap<Clave, Entrada> entradas;
+
+    private record Clave(String sql, int clavesGeneradas) {
+    }
+
+    CacheSentencias(int capacidad, LongAdder reutilizadas, LongAdder preparadas) {
+        this.capacidad = capacidad;
+        this.reutilizadas = reutilizadas;
+        this.preparadas = preparadas;
+        this.entradas = new LinkedHashMap<>(Math.min(capacidad, 64) * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Clave, Entrada> mayor) {
+                if (size() <= CacheSentencias.this.capacidad) {
+                    return false;
+                }
+                mayor.getValue().retirar();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * prepareStatement(sql) o prepareStatement(sql, clavesGeneradas) servido desde la caché
+     * @param clavesGeneradas Statement.RETURN_GENERATED_KEYS / NO_GENERATED_KEYS, o -1 si no se indicó
+     */
+    PreparedStatement preparar(Connection conexion, String sql, int clavesGeneradas) throws SQLException {
+        Clave clave = new Clave(sql, clavesGeneradas);
+        Entrada entrada = entradas.get(clave);
+
+        if (entrada != null && !entrada.enUso) {
+            if (!entrada.fisica.isClosed()) {
+                reutilizadas.increment();
+                entrada.enUso = true;
+                return entrada.proxy;
+            }
+            // Alguien cerró la sentencia real (p. ej. vía ResultSet.getStatement()): se descarta
+            entradas.remove(clave);
+            entrada = null;
+        }
+
+        preparadas.increment();
+        PreparedStatement fisica = clavesGeneradas < 0
+                ? conexion.prepareStatement(sql)
+                : conexion.prepareStatement(sql, clavesGeneradas);
+        if (entrada != null) {
+            // La misma SQL ya está en uso en esta conexión (sentencias anidadas): esta no se cachea
+            return fisica;
+        }
+
+        Entrada nueva = new Entrada(fisica);
+        nueva.enUso = true;
+        entradas.put(clave, nueva);
+        return nueva.proxy;
+    }
+
+    /**
+     * Al devolver la conexión: las sentencias que siguen abiertas se cierran de verdad
+     * (como haría JDBC al cerrar la conexión) y salen de la caché
+     */
+    void liberarEnUso() {
+        Iterator<Entrada> it = entradas.values().iterator();
+        while (it.hasNext()) {
+            Entrada entrada = it.next();
+            if (entrada.enUso) {
+                it.remove();
+                entrada.retirada = true;
+                entrada.devolver();
+            }
+        }
+    }
+
+    /**
+     * Cerrar todas las sentencias (la conexión física se retira)
+     */
+    void cerrar() {
+        List<Entrada> todas = new ArrayList<>(entradas.values());
+        entradas.clear();
+        for (Entrada entrada : todas) {
+            entrada.enUso = false;
+            entrada.cerrarFisica();
+        }
+    }
+
+    int getTamano() {
+        return entradas.size();
+    }
+
+    /**
+     * Sentencia cacheada: el proxy que se entrega y su estado
+     */
+    private static final class Entrada implements InvocationHandler {
+        final PreparedStatement fisica;
+        final PreparedStatement proxy;
+        boolean enUso;
+        boolean retirada;
+        boolean ajustada;
+        boolean conLote;
+        ResultSet cursor;
+
+        Entrada(PreparedStatement fisica) {
+            this.fisica = fisica;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nombre = method.getName();
+            switch (nombre) {
+                case "close":
+                    devolver();
+                    return null;
+                case "isClosed":
+                    return !enUso || fisica.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "SentenciaCacheada[" + fisica + "]";
+                default:
+                    break;
+            }
+
+            if (!enUso) {
+                throw new SQLException("La sentencia ya está cerrada");
+            }
+            if (AJUSTES.contains(nombre)) {
+                ajustada = true;
+            } else if (nombre.equals("addBatch")) {
+                conLote = true;
+            }
+
+            Object resultado;
+            try {
+                resultado = method.invoke(fisica, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (resultado instanceof ResultSet rs) {
+                cursor = rs;
+            }
+            return resultado;
+        }
+
+        /**
+         * close() del llamador: dejar la sentencia como recién preparada
+         * Cerrar el cursor abierto es importante: mientras vive mantiene la instantánea de lectura
+         */
+        private void devolver() {
+            if (!enUso) {
+                return;
+            }
+            enUso = false;
+
+            try {
+                if (cursor != null) {
+                    cursor.close();
+                    cursor = null;
+                }
+                if (conLote) {
+                    fisica.clearBatch();
+                    conLote = false;
+                }
+                fisica.clearParameters();
+            } catch (SQLException e) {
+                LOG.debug(() -> "Sentencia descartada al restablecerla: " + e.getMessage());
+                retirada = true;
+            }
+
+            if (retirada || ajustada) {
+                cerrarFisica();
+            }
+        }
+
+        /**
+         * Sale de la caché: se cierra ya si está libre o al devolverla si está en uso
+         */
+        void retirar() {
+            retirada = true;
+            if (!enUso) {
+                cerrarFisica();
+            }
+        }
+
+        void cerrarFisica() {
+            try {
+                fisica.close();
+            } catch (SQLException e) {
+                LOG.warn(() -> "Error cerrando sentencia: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -1,87 +1,213 @@
 package com.mycompany.sistemadegestiondelibrosbibliioteca.config;
 
+import com.mycompany.sistemadegestiondelibrosbibliioteca.metricas.MetricasOperacion;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.metricas.RegistroMetricas;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.util.Log;
 import java.io.File;
-import java.sql.*;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * DatabaseConfig - Configuración JDBC con SQLite
+ * Dos carriles de acceso sobre WAL:
+ *  - lectura: pool de varias conexiones de solo lectura (PRAGMA query_only), en paralelo
+ *  - escritura: una única conexión; los escritores esperan en cola FIFO su turno
+ * Sin WAL los lectores chocarían con el escritor (SQLITE_BUSY): el carril de lectura se reduce a una conexión
  */
 public class DatabaseConfig {
 
-    private static final String DB_FILE = "biblioteca.db";
-    private static final String URL = "jdbc:sqlite:" + DB_FILE;
+    private static final Log LOG = Log.de(DatabaseConfig.class);
 
-    private static Connection conexion = null;
-    private static boolean inicializado = false;
+    // Archivo de la BD; -Dbiblioteca.db.archivo permite apuntar a otro (p. ej. en benchmarks)
+    private static final String DB_FILE_DEFECTO = "biblioteca.db";
+
+    // Versión del esquema guardada en PRAGMA user_version
+    private static final int VERSION_ESQUEMA = 4;
+
+    // Parámetros de los pools (sobrescribibles con -Dbiblioteca.pool.*)
+    private static final int POOL_MAXIMO = Integer.getInteger("biblioteca.pool.maximo", 8);
+    private static final long POOL_ESPERA_ESCRITURA_MS = Long.getLong("biblioteca.pool.esperaEscrituraMs", 30_000);
+    private static final int POOL_MINIMO_OCIOSAS = Integer.getInteger("biblioteca.pool.minimoOciosas", 1);
+    private static final long POOL_ESPERA_MS = Long.getLong("biblioteca.pool.esperaMs", 5_000);
+    private static final long POOL_OCIOSA_MS = Long.getLong("biblioteca.pool.ociosaMs", 60_000);
+    private static final long POOL_VALIDAR_TRAS_MS = Long.getLong("biblioteca.pool.validarTrasMs", 500);
+    private static final long POOL_FUGA_MS = Long.getLong("biblioteca.pool.fugaMs", 30_000);
+    private static final int POOL_SENTENCIAS_DEFECTO = 64;
+
+    // Reconstruir al arrancar el índice de búsqueda desfasado (-Dbiblioteca.fts.reconstruir=false lo evita)
+    private static final boolean RECONSTRUIR_INDICE =
+            Boolean.parseBoolean(System.getProperty("biblioteca.fts.reconstruir", "true"));
+
+    // Tablas de resumen para estadísticas en O(1) (-Dbiblioteca.resumen=true); cuestan dos upserts por escritura
+    private static final boolean RESUMEN =
+            Boolean.parseBoolean(System.getProperty("biblioteca.resumen", "false"));
+
+    // Tiempo de espera para obtener conexión de cada carril, separado del tiempo de las consultas
+    private static final MetricasOperacion METRICA_LECTURA = RegistroMetricas.operacion("conexion.lectura");
+    private static final MetricasOperacion METRICA_ESCRITURA = RegistroMetricas.operacion("conexion.escritura");
+
+    // Ambos pools se publican juntos en una sola referencia volatile
+    private static volatile Carriles carriles = null;
+
+    // Tareas a ejecutar antes de cerrar los pools (p. ej. vaciar colas de escritura)
+    private static final Deque<Runnable> TAREAS_CIERRE = new ArrayDeque<>();
 
     /**
-     * Inicializar base de datos
+     * Inicializar base de datos y pool de conexiones
      */
-    public static void inicializar() throws SQLException {
-        if (inicializado && conexion != null && !conexion.isClosed()) {
+    public static synchronized void inicializar() throws SQLException {
+        if (carriles != null) {
             return;
         }
 
         // Verificar si la BD ya existe
-        boolean bdExiste = verificarBaseDatos();
+        String archivo = archivoBaseDatos();
+        boolean bdExiste = verificarBaseDatos(archivo);
 
         try {
             // Cargar driver SQLite
             Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("Driver SQLite no encontrado", e);
+        }
+
+        String url = "jdbc:sqlite:" + archivo;
+        PerfilSQLite perfil = PerfilSQLite.cargar();
+
+        // PreparedStatements cacheados por conexión (-Dbiblioteca.pool.sentencias=0 desactiva la caché)
+        int sentencias = Integer.getInteger("biblioteca.pool.sentencias", POOL_SENTENCIAS_DEFECTO);
 
-            // Establecer conexión
-            conexion = DriverManager.getConnection(URL);
+        // Escritura: una sola conexión; el semáforo justo del pool hace de cola FIFO
+        PoolConexiones escritura = new PoolConexiones(url, perfil::aplicar,
+                1, 1, POOL_ESPERA_ESCRITURA_MS, POOL_OCIOSA_MS, POOL_VALIDAR_TRAS_MS, POOL_FUGA_MS, sentencias);
 
+        boolean reconstruirIndice;
+        boolean wal;
+        try (Connection conn = escritura.obtener()) {
+            perfil.informar(conn);
+            wal = PerfilSQLite.esWal(conn);
+            verificarCodificacion(conn);
             if (!bdExiste) {
-                crearEstructura();
-                System.out.println("Base de datos creada: " + DB_FILE);
+                crearEstructura(conn);
+                LOG.info(() -> "Base de datos creada: " + archivo);
+            } else {
+                migrar(conn);
             }
+            reconstruirIndice = IndiceBusqueda.necesitaReconstruir(conn);
+            if (RESUMEN) {
+                ResumenEstadisticas.activar(conn);
+            } else {
+                ResumenEstadisticas.desactivar(conn);
+            }
+        } catch (SQLException e) {
+            escritura.cerrar();
+            throw e;
+        }
 
-            inicializado = true;
+        // Los lectores en paralelo solo están aislados del escritor con WAL
+        int maximoLectura = POOL_MAXIMO;
+        if (!wal && POOL_MAXIMO > 1) {
+            maximoLectura = 1;
+            LOG.warn(() -> "journal_mode efectivo distinto de WAL: el carril de lectura se limita a 1 conexión "
+                    + "(revisar sqlite.journal_mode en el perfil)");
+        }
 
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("Driver SQLite no encontrado", e);
+        // Lectura: se abren después de crear/migrar el esquema
+        PoolConexiones lectura = new PoolConexiones(url, conn -> {
+            perfil.aplicar(conn);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA query_only = ON");
+            }
+        }, maximoLectura, Math.min(POOL_MINIMO_OCIOSAS, maximoLectura), POOL_ESPERA_MS, POOL_OCIOSA_MS, POOL_VALIDAR_TRAS_MS, POOL_FUGA_MS,
+                sentencias);
+
+        carriles = new Carriles(lectura, escritura);
+
+        // Una BD existente llega con el índice vacío: se rellena sin bloquear el arranque
+        if (reconstruirIndice && RECONSTRUIR_INDICE) {
+            IndiceBusqueda.reconstruirEnSegundoPlano();
+        } else if (reconstruirIndice) {
+            LOG.warn(() -> "Índice de búsqueda desfasado: reconstruirlo con reconstruirIndiceBusqueda()");
         }
     }
 
+    /**
+     * Archivo de BD configurado (se lee en cada inicialización)
+     */
+    private static String archivoBaseDatos() {
+        return System.getProperty("biblioteca.db.archivo", DB_FILE_DEFECTO);
+    }
+
     /**
      * Verificar si el archivo de BD existe
      */
-    private static boolean verificarBaseDatos() {
-        File dbFile = new File(DB_FILE);
+    private static boolean verificarBaseDatos(String archivo) {
+        File dbFile = new File(archivo);
         return dbFile.exists() && dbFile.length() > 0;
     }
 
+    /**
+     * La BD debe estar en UTF-8: LibroDAOImpl decodifica el texto desde los bytes de cada columna
+     * (sqlite-jdbc entrega con getBytes el texto tal como lo guarda SQLite, en la codificación de la BD)
+     */
+    private static void verificarCodificacion(Connection conexion) throws SQLException {
+        try (Statement stmt = conexion.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA encoding")) {
+            String codificacion = rs.next() ? rs.getString(1) : "?";
+            if (!"UTF-8".equalsIgnoreCase(codificacion)) {
+                throw new SQLException("Codificación de la BD no soportada: " + codificacion + " (se requiere UTF-8)");
+            }
+        }
+    }
+
     /**
      * Crear estructura completa de la BD
      */
-    private static void crearEstructura() throws SQLException {
-        String sql = """
-            CREATE TABLE libros (
+    private static void crearEstructura(Connection conexion) throws SQLException {
+        try (Statement stmt = conexion.createStatement()) {
+            stmt.execute(sqlTablaLibros("libros"));
+            crearIndices(conexion);
+            IndiceBusqueda.crear(conexion);
+            escribirVersionEsquema(conexion, VERSION_ESQUEMA);
+        }
+    }
+
+    /**
+     * DDL de la tabla libros
+     * titulo y autor usan COLLATE NOCASE: UNIQUE(titulo, autor) ya es la clave normalizada
+     * y su índice sirve tanto a la restricción como a la búsqueda de duplicados
+     * version se incrementa en cada UPDATE: detecta ediciones concurrentes (concurrencia optimista)
+     */
+    private static String sqlTablaLibros(String nombre) {
+        return """
+            CREATE TABLE %s (
                 id INTEGER PRIMARY KEY AUTOINCREMENT,
-                titulo TEXT NOT NULL,
-                autor TEXT NOT NULL,
+                titulo TEXT NOT NULL COLLATE NOCASE,
+                autor TEXT NOT NULL COLLATE NOCASE,
                 ano_publicacion INTEGER NOT NULL,
                 disponible BOOLEAN DEFAULT 1,
                 fecha_creacion DATETIME DEFAULT CURRENT_TIMESTAMP,
+                version INTEGER NOT NULL DEFAULT 1,
                 UNIQUE(titulo, autor)
             )
-        """;
-
-        try (Statement stmt = conexion.createStatement()) {
-            stmt.execute(sql);
-            crearIndices();
-        }
+        """.formatted(nombre);
     }
 
     /**
      * Crear índices para optimización
+     * (titulo, autor) ya está indexado por la restricción UNIQUE
+     * idx_autor e idx_ano_publicacion incluyen disponible: los conteos se resuelven solo con el índice
      */
-    private static void crearIndices() throws SQLException {
+    private static void crearIndices(Connection conexion) throws SQLException {
         String[] indices = {
                 "CREATE INDEX IF NOT EXISTS idx_titulo ON libros(titulo)",
-                "CREATE INDEX IF NOT EXISTS idx_autor ON libros(autor)",
-                "CREATE INDEX IF NOT EXISTS idx_titulo_autor ON libros(titulo, autor)"
+                "CREATE INDEX IF NOT EXISTS idx_autor ON libros(autor, disponible)",
+                "CREATE INDEX IF NOT EXISTS idx_ano_publicacion ON libros(ano_publicacion, disponible)"
         };
 
         try (Statement stmt = conexion.createStatement()) {
@@ -91,27 +217,280 @@ public class DatabaseConfig {
         }
     }
 
+    // ========================================================================
+    // MIGRACIONES (PRAGMA user_version)
+    // ========================================================================
+
     /**
-     * Obtener conexión activa
+     * Aplicar las migraciones pendientes de una BD existente
      */
-    public static Connection getConexion() throws SQLException {
-        if (!inicializado || conexion == null || conexion.isClosed()) {
-            inicializar();
+    private static void migrar(Connection conexion) throws SQLException {
+        int version = leerVersionEsquema(conexion);
+
+        if (version < 1) {
+            migrarClaveNormalizada(conexion);
+        }
+        if (version < 2) {
+            migrarIndiceBusqueda(conexion);
+        }
+        if (version < 3) {
+            migrarIndicesCobertura(conexion);
+        }
+        if (version < 4) {
+            migrarColumnaVersion(conexion);
+        }
+    }
+
+    /**
+     * v1: reconstruir libros con titulo/autor COLLATE NOCASE y valores recortados
+     * Sustituye el filtro LOWER(TRIM(...)) de exists(), que impedía usar los índices
+     */
+    private static void migrarClaveNormalizada(Connection conexion) throws SQLException {
+        try (Statement stmt = conexion.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT TRIM(titulo), TRIM(autor) FROM libros "
+                            + "GROUP BY TRIM(titulo) COLLATE NOCASE, TRIM(autor) COLLATE NOCASE "
+                            + "HAVING COUNT(*) > 1 LIMIT 1")) {
+                if (rs.next()) {
+                    throw new SQLException("No se puede migrar: el libro '" + rs.getString(1) + "' de "
+                            + rs.getString(2) + " está repetido ignorando mayúsculas/espacios");
+                }
+            }
+
+            conexion.setAutoCommit(false);
+            try {
+                long secuencia = 0;
+                try (ResultSet rs = stmt.executeQuery("SELECT seq FROM sqlite_sequence WHERE name = 'libros'")) {
+                    if (rs.next()) {
+                        secuencia = rs.getLong(1);
+                    }
+                }
+
+                stmt.execute(sqlTablaLibros("libros_v1"));
+                stmt.execute("""
+                    INSERT INTO libros_v1 (id, titulo, autor, ano_publicacion, disponible, fecha_creacion)
+                    SELECT id, TRIM(titulo), TRIM(autor), ano_publicacion, disponible, fecha_creacion FROM libros
+                """);
+                stmt.execute("DROP TABLE libros");
+                stmt.execute("ALTER TABLE libros_v1 RENAME TO libros");
+                stmt.execute("UPDATE sqlite_sequence SET seq = MAX(seq, " + secuencia + ") WHERE name = 'libros'");
+                crearIndices(conexion);
+                escribirVersionEsquema(conexion, 1);
+
+                conexion.commit();
+                LOG.info(() -> "Migración v1 aplicada: clave (titulo, autor) sin distinguir mayúsculas");
+            } catch (SQLException e) {
+                conexion.rollback();
+                throw e;
+            } finally {
+                conexion.setAutoCommit(true);
+            }
         }
-        return conexion;
     }
 
     /**
-     * Cerrar conexión
+     * v2: índice de texto completo FTS5 (libros_fts) y sus triggers
+     * Se crea vacío; inicializar() lo reconstruye después en segundo plano
      */
-    public static void cerrarConexion() {
+    private static void migrarIndiceBusqueda(Connection conexion) throws SQLException {
+        conexion.setAutoCommit(false);
         try {
-            if (conexion != null && !conexion.isClosed()) {
-                conexion.close();
-                inicializado = false;
+            IndiceBusqueda.crear(conexion);
+            escribirVersionEsquema(conexion, 2);
+            conexion.commit();
+            LOG.info(() -> "Migración v2 aplicada: índice de búsqueda libros_fts");
+        } catch (SQLException e) {
+            conexion.rollback();
+            throw e;
+        } finally {
+            conexion.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * v3: índices de cobertura para los informes por autor, año y disponibilidad
+     * idx_autor pasa de (autor) a (autor, disponible): sigue sirviendo a las búsquedas por autor
+     */
+    private static void migrarIndicesCobertura(Connection conexion) throws SQLException {
+        conexion.setAutoCommit(false);
+        try (Statement stmt = conexion.createStatement()) {
+            stmt.execute("DROP INDEX IF EXISTS idx_autor");
+            crearIndices(conexion);
+            escribirVersionEsquema(conexion, 3);
+            conexion.commit();
+            LOG.info(() -> "Migración v3 aplicada: índices de cobertura para informes");
+        } catch (SQLException e) {
+            conexion.rollback();
+            throw e;
+        } finally {
+            conexion.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * v4: columna version para la concurrencia optimista
+     * ADD COLUMN con DEFAULT constante no reescribe la tabla; la v1 de esta misma ejecución ya la trae
+     */
+    private static void migrarColumnaVersion(Connection conexion) throws SQLException {
+        conexion.setAutoCommit(false);
+        try (Statement stmt = conexion.createStatement()) {
+            if (!tieneColumna(conexion, "libros", "version")) {
+                stmt.execute("ALTER TABLE libros ADD COLUMN version INTEGER NOT NULL DEFAULT 1");
             }
+            escribirVersionEsquema(conexion, 4);
+            conexion.commit();
+            LOG.info(() -> "Migración v4 aplicada: columna version en libros");
         } catch (SQLException e) {
-            System.err.println("Error cerrando conexión: " + e.getMessage());
+            conexion.rollback();
+            throw e;
+        } finally {
+            conexion.setAutoCommit(true);
+        }
+    }
+
+    private static boolean tieneColumna(Connection conexion, String tabla, String columna) throws SQLException {
+        try (Statement stmt = conexion.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + tabla + ")")) {
+            while (rs.next()) {
+                if (rs.getString("name").equalsIgnoreCase(columna)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static int leerVersionEsquema(Connection conexion) throws SQLException {
+        try (Statement stmt = conexion.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void escribirVersionEsquema(Connection conexion, int version) throws SQLException {
+        try (Statement stmt = conexion.createStatement()) {
+            stmt.execute("PRAGMA user_version = " + version);
+        }
+    }
+
+    /**
+     * Obtener conexión del carril de escritura
+     * Hay una sola: quien la pida espera en cola a que el escritor anterior la devuelva
+     */
+    public static Connection getConexion() throws SQLException {
+        return getConexionEscritura();
+    }
+
+    /**
+     * Obtener conexión del carril de escritura (cerrarla la devuelve)
+     */
+    public static Connection getConexionEscritura() throws SQLException {
+        return obtener(carrilesActivos().escritura, METRICA_ESCRITURA);
+    }
+
+    /**
+     * Obtener conexión de solo lectura (cerrarla la devuelve)
+     * Con WAL ve la última transacción confirmada y no bloquea al escritor
+     */
+    public static Connection getConexionLectura() throws SQLException {
+        return obtener(carrilesActivos().lectura, METRICA_LECTURA);
+    }
+
+    /**
+     * Reconstruir el índice de búsqueda en segundo plano (p. ej. tras cargar datos a mano)
+     */
+    public static CompletableFuture<Void> reconstruirIndiceBusqueda() throws SQLException {
+        carrilesActivos();
+        return IndiceBusqueda.reconstruirEnSegundoPlano();
+    }
+
+    /**
+     * Verdadero si las estadísticas se leen de las tablas de resumen en lugar de agregar libros
+     */
+    public static boolean isResumenActivo() {
+        return RESUMEN;
+    }
+
+    /**
+     * Escritores esperando turno en el carril de escritura
+     */
+    public static int getEscritoresEnEspera() {
+        Carriles actuales = carriles;
+        return actuales == null ? 0 : actuales.escritura.getEnEspera();
+    }
+
+    /**
+     * Registrar una tarea que se ejecuta al inicio de cerrarConexion, con los pools aún abiertos
+     * Se ejecutan en orden inverso al de registro y una sola vez
+     */
+    public static void alCerrar(Runnable tarea) {
+        synchronized (TAREAS_CIERRE) {
+            TAREAS_CIERRE.push(tarea);
+        }
+    }
+
+    /**
+     * Cerrar ambos pools y sus conexiones
+     * Antes ejecuta las tareas registradas con alCerrar
+     */
+    public static synchronized void cerrarConexion() {
+        while (true) {
+            Runnable tarea;
+            synchronized (TAREAS_CIERRE) {
+                tarea = TAREAS_CIERRE.poll();
+            }
+            if (tarea == null) {
+                break;
+            }
+            try {
+                tarea.run();
+            } catch (RuntimeException e) {
+                LOG.error(() -> "Error en tarea de cierre", e);
+            }
+        }
+
+        if (carriles != null) {
+            Carriles cerrados = carriles;
+            LOG.info(() -> "Sentencias preparadas: " + (cerrados.lectura.getSentenciasPreparadas()
+                    + cerrados.escritura.getSentenciasPreparadas()) + ", reutilizadas: "
+                    + (cerrados.lectura.getSentenciasReutilizadas() + cerrados.escritura.getSentenciasReutilizadas()));
+            carriles.lectura.cerrar();
+            carriles.escritura.cerrar();
+            carriles = null;
+        }
+    }
+
+    private static Carriles carrilesActivos() throws SQLException {
+        Carriles actuales = carriles;
+        if (actuales == null) {
+            inicializar();
+            actuales = carriles;
+        }
+        return actuales;
+    }
+
+    private static Connection obtener(PoolConexiones pool, MetricasOperacion metrica) throws SQLException {
+        long inicio = System.nanoTime();
+        boolean error = true;
+        try {
+            Connection conexion = pool.obtener();
+            error = false;
+            return conexion;
+        } finally {
+            metrica.registrar(inicio, error);
+        }
+    }
+
+    /**
+     * Pools de lectura y escritura de una misma inicialización
+     */
+    private static final class Carriles {
+        final PoolConexiones lectura;
+        final PoolConexiones escritura;
+
+        Carriles(PoolConexiones lectura, PoolConexiones escritura) {
+            this.lectura = lectura;
+            this.escritura = escritura;
         }
     }
-}
\ No newline at end of file
+}
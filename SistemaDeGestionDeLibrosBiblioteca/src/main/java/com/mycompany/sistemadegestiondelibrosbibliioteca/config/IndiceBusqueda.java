@@ -0,0 +1,97 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.config;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.util.Log;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * IndiceBusqueda - Índice de texto completo FTS5 sobre titulo y autor
+ * libros_fts es una tabla de contenido externo: guarda solo el índice invertido y lee
+ * el texto de libros. Los triggers lo mantienen sincronizado con cada INSERT/UPDATE/DELETE.
+ */
+final class IndiceBusqueda {
+
+    private static final Log LOG = Log.de(IndiceBusqueda.class);
+
+    private IndiceBusqueda() {
+    }
+
+    /**
+     * Crear la tabla FTS5 y los triggers (vacía: en una BD existente hay que reconstruirla)
+     */
+    static void crear(Connection conexion) throws SQLException {
+        String[] sentencias = {
+                """
+                CREATE VIRTUAL TABLE IF NOT EXISTS libros_fts USING fts5(
+                    titulo, autor,
+                    content = 'libros', content_rowid = 'id',
+                    tokenize = 'unicode61 remove_diacritics 2'
+                )
+                """,
+                """
+                CREATE TRIGGER IF NOT EXISTS libros_fts_ai AFTER INSERT ON libros BEGIN
+                    INSERT INTO libros_fts (rowid, titulo, autor) VALUES (new.id, new.titulo, new.autor);
+                END
+                """,
+                """
+                CREATE TRIGGER IF NOT EXISTS libros_fts_ad AFTER DELETE ON libros BEGIN
+                    INSERT INTO libros_fts (libros_fts, rowid, titulo, autor) VALUES ('delete', old.id, old.titulo, old.autor);
+                END
+                """,
+                // Solo si cambia el texto indexado: actualizar el año o la disponibilidad no toca el índice
+                """
+                CREATE TRIGGER IF NOT EXISTS libros_fts_au AFTER UPDATE OF titulo, autor ON libros BEGIN
+                    INSERT INTO libros_fts (libros_fts, rowid, titulo, autor) VALUES ('delete', old.id, old.titulo, old.autor);
+                    INSERT INTO libros_fts (rowid, titulo, autor) VALUES (new.id, new.titulo, new.autor);
+                END
+                """
+        };
+
+        try (Statement stmt = conexion.createStatement()) {
+            for (String sentencia : sentencias) {
+                stmt.execute(sentencia);
+            }
+        }
+    }
+
+    /**
+     * El índice está desfasado si no cubre exactamente las filas de libros
+     * (BD migrada, o una reconstrucción que no llegó a confirmarse)
+     */
+    static boolean necesitaReconstruir(Connection conexion) throws SQLException {
+        try (Statement stmt = conexion.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT (SELECT COUNT(*) FROM libros_fts_docsize) <> (SELECT COUNT(*) FROM libros)")) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    /**
+     * Reconstruir el índice en un hilo aparte, sobre el carril de escritura
+     * Mientras dura, las escrituras esperan su turno y las búsquedas pueden devolver
+     * resultados incompletos; al confirmar, el índice queda completo de una vez.
+     */
+    static CompletableFuture<Void> reconstruirEnSegundoPlano() {
+        CompletableFuture<Void> resultado = new CompletableFuture<>();
+
+        Thread hilo = new Thread(() -> {
+            long inicio = System.nanoTime();
+            try (Connection conn = DatabaseConfig.getConexionEscritura();
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute("INSERT INTO libros_fts (libros_fts) VALUES ('rebuild')");
+                LOG.info(() -> "Índice de búsqueda reconstruido en " + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+                resultado.complete(null);
+            } catch (SQLException | RuntimeException e) {
+                LOG.error(() -> "Error reconstruyendo el índice de búsqueda", e);
+                resultado.completeExceptionally(e);
+            }
+        }, "indice-busqueda");
+        hilo.setDaemon(true);
+        hilo.start();
+
+        return resultado;
+    }
+}
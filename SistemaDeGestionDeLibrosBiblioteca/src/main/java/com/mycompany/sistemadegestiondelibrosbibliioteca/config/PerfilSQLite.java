@@ -0,0 +1,110 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.config;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.util.Log;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+/**
+ * PerfilSQLite - PRAGMAs de rendimiento aplicados a cada conexión nueva
+ * Valores de biblioteca.properties (classpath), sobrescribibles con -Dbiblioteca.sqlite.*
+ */
+public class PerfilSQLite {
+
+    private static final Log LOG = Log.de(PerfilSQLite.class);
+
+    private static final String RECURSO = "/biblioteca.properties";
+    private static final String PREFIJO = "sqlite.";
+
+    // Orden de aplicación: journal_mode primero, el resto no depende del orden
+    private static final String[] PRAGMAS = {
+            "journal_mode", "synchronous", "mmap_size", "cache_size", "temp_store", "busy_timeout"
+    };
+
+    // Los valores se concatenan en la sentencia PRAGMA: solo se admiten palabras y números
+    private static final Pattern VALOR_VALIDO = Pattern.compile("-?[A-Za-z0-9_]+");
+
+    private final Map<String, String> valores;
+
+    private PerfilSQLite(Map<String, String> valores) {
+        this.valores = valores;
+    }
+
+    /**
+     * Cargar el perfil: archivo de propiedades y luego propiedades del sistema
+     */
+    public static PerfilSQLite cargar() {
+        Properties archivo = new Properties();
+        try (InputStream entrada = PerfilSQLite.class.getResourceAsStream(RECURSO)) {
+            if (entrada != null) {
+                archivo.load(entrada);
+            }
+        } catch (IOException e) {
+            LOG.warn(() -> "No se pudo leer " + RECURSO + ": " + e.getMessage());
+        }
+
+        Map<String, String> valores = new LinkedHashMap<>();
+        for (String pragma : PRAGMAS) {
+            String valor = System.getProperty("biblioteca." + PREFIJO + pragma, archivo.getProperty(PREFIJO + pragma));
+            if (valor == null || valor.trim().isEmpty()) {
+                continue;
+            }
+            String limpio = valor.trim();
+            if (!VALOR_VALIDO.matcher(limpio).matches()) {
+                LOG.warn(() -> "Valor inválido para PRAGMA " + pragma + ": '" + limpio + "' (se ignora)");
+                continue;
+            }
+            valores.put(pragma, limpio);
+        }
+        return new PerfilSQLite(valores);
+    }
+
+    /**
+     * Aplicar los PRAGMAs a una conexión recién abierta
+     */
+    public void aplicar(Connection conexion) throws SQLException {
+        try (Statement stmt = conexion.createStatement()) {
+            for (Map.Entry<String, String> pragma : valores.entrySet()) {
+                stmt.execute("PRAGMA " + pragma.getKey() + " = " + pragma.getValue());
+            }
+        }
+    }
+
+    /**
+     * Registrar los valores efectivos que SQLite reporta para esta conexión
+     */
+    public void informar(Connection conexion) throws SQLException {
+        StringBuilder informe = new StringBuilder("Perfil SQLite efectivo:");
+        try (Statement stmt = conexion.createStatement()) {
+            for (String pragma : PRAGMAS) {
+                try (ResultSet rs = stmt.executeQuery("PRAGMA " + pragma)) {
+                    informe.append(' ').append(pragma).append('=')
+                            .append(rs.next() ? rs.getString(1) : "?");
+                }
+            }
+        }
+        LOG.info(informe::toString);
+    }
+
+    /**
+     * Verdadero si la conexión trabaja en modo WAL (journal_mode efectivo, no el configurado)
+     */
+    public static boolean esWal(Connection conexion) throws SQLException {
+        try (Statement stmt = conexion.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA journal_mode")) {
+            return rs.next() && "wal".equalsIgnoreCase(rs.getString(1));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PerfilSQLite" + valores;
+    }
+}
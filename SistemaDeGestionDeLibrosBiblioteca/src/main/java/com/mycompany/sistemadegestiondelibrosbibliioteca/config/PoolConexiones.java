@@ -0,0 +1,363 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.config;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.util.Log;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PoolConexiones - Pool acotado de conexiones JDBC
+ * Presta conexiones envueltas: close() las devuelve al pool en lugar de cerrarlas.
+ * Valida al prestar, desaloja conexiones ociosas y detecta préstamos que nunca se devuelven.
+ * Cada conexión física puede guardar sus PreparedStatements (CacheSentencias) para reutilizarlos.
+ */
+public class PoolConexiones {
+
+    private static final Log LOG = Log.de(PoolConexiones.class);
+
+    private final String url;
+    private final Inicializador inicializador;
+    private final int maximo;
+    private final int minimoOciosas;
+    private final long esperaMaximaMs;
+    private final long ociosaMaximaMs;
+    private final long validarTrasMs;
+    private final long umbralFugaMs;
+    private final int sentenciasPorConexion;
+
+    private final LongAdder sentenciasReutilizadas = new LongAdder();
+    private final LongAdder sentenciasPreparadas = new LongAdder();
+
+    private final Semaphore permisos;
+    private final Deque<ConexionFisica> libres = new ArrayDeque<>();
+    private final Set<Prestamo> prestadas = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService mantenimiento;
+
+    private volatile boolean cerrado = false;
+
+    /**
+     * Configuración aplicada a cada conexión física al abrirla (p. ej. PRAGMAs)
+     */
+    @FunctionalInterface
+    public interface Inicializador {
+        void inicializar(Connection conexion) throws SQLException;
+    }
+
+    public PoolConexiones(String url, Inicializador inicializador, int maximo, int minimoOciosas,
+                          long esperaMaximaMs, long ociosaMaximaMs, long validarTrasMs, long umbralFugaMs) {
+        this(url, inicializador, maximo, minimoOciosas, esperaMaximaMs, ociosaMaximaMs, validarTrasMs, umbralFugaMs, 0);
+    }
+
+    /**
+     * @param sentenciasPorConexion PreparedStatements cacheados por conexión física (0 = sin caché)
+     */
+    public PoolConexiones(String url, Inicializador inicializador, int maximo, int minimoOciosas,
+                          long esperaMaximaMs, long ociosaMaximaMs, long validarTrasMs, long umbralFugaMs,
+                          int sentenciasPorConexion) {
+        if (maximo <= 0) {
+            throw new IllegalArgumentException("El tamaño máximo del pool debe ser positivo");
+        }
+        this.url = url;
+        this.inicializador = inicializador;
+        this.maximo = maximo;
+        this.minimoOciosas = Math.max(0, Math.min(minimoOciosas, maximo));
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.ociosaMaximaMs = ociosaMaximaMs;
+        this.validarTrasMs = validarTrasMs;
+        this.umbralFugaMs = umbralFugaMs;
+        this.sentenciasPorConexion = Math.max(0, sentenciasPorConexion);
+        this.permisos = new Semaphore(maximo, true);
+
+        this.mantenimiento = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "pool-conexiones-mantenimiento");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        long periodo = Math.max(1000, Math.min(ociosaMaximaMs, umbralFugaMs > 0 ? umbralFugaMs : ociosaMaximaMs) / 2);
+        mantenimiento.scheduleWithFixedDelay(this::mantener, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Prestar una conexión del pool
+     * Espera como máximo esperaMaximaMs si todas están en uso
+     */
+    public Connection obtener() throws SQLException {
+        if (cerrado) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+
+        try {
+            if (!permisos.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Tiempo de espera agotado obteniendo conexión (" + maximo + " en uso)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido esperando conexión", e);
+        }
+
+        try {
+            ConexionFisica fisica = tomarValida();
+            Prestamo prestamo = new Prestamo(fisica, umbralFugaMs > 0 ? new Throwable("Conexión prestada aquí") : null);
+            prestadas.add(prestamo);
+            return prestamo.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Cerrar el pool y todas las conexiones libres
+     * Las conexiones prestadas se cierran al devolverse
+     */
+    public void cerrar() {
+        cerrado = true;
+        mantenimiento.shutdownNow();
+        synchronized (libres) {
+            for (ConexionFisica fisica : libres) {
+                fisica.cerrar();
+            }
+            libres.clear();
+        }
+    }
+
+    public int getMaximo() {
+        return maximo;
+    }
+
+    public int getPrestadas() {
+        return prestadas.size();
+    }
+
+    public int getEnEspera() {
+        return permisos.getQueueLength();
+    }
+
+    public int getLibres() {
+        synchronized (libres) {
+            return libres.size();
+        }
+    }
+
+    // prepareStatement servidos desde la caché de sentencias
+    public long getSentenciasReutilizadas() {
+        return sentenciasReutilizadas.sum();
+    }
+
+    // prepareStatement que tuvieron que ir a SQLite (fallos de caché, o todos si está desactivada)
+    public long getSentenciasPreparadas() {
+        return sentenciasPreparadas.sum();
+    }
+
+    // ========================================================================
+    // MÉTODOS AUXILIARES
+    // ========================================================================
+
+    private ConexionFisica tomarValida() throws SQLException {
+        while (true) {
+            ConexionFisica fisica;
+            synchronized (libres) {
+                fisica = libres.pollFirst();
+            }
+            if (fisica == null) {
+                return abrir();
+            }
+            if (fisica.esValida(validarTrasMs)) {
+                return fisica;
+            }
+            fisica.cerrar();
+        }
+    }
+
+    private ConexionFisica abrir() throws SQLException {
+        Connection conexion = DriverManager.getConnection(url);
+        try {
+            if (inicializador != null) {
+                inicializador.inicializar(conexion);
+            }
+        } catch (SQLException | RuntimeException e) {
+            conexion.close();
+            throw e;
+        }
+        return new ConexionFisica(conexion, sentenciasPorConexion > 0
+                ? new CacheSentencias(sentenciasPorConexion, sentenciasReutilizadas, sentenciasPreparadas)
+                : null);
+    }
+
+    private void devolver(Prestamo prestamo) {
+        if (!prestadas.remove(prestamo)) {
+            return;
+        }
+
+        ConexionFisica fisica = prestamo.fisica;
+        try {
+            if (cerrado || !fisica.restablecer()) {
+                fisica.cerrar();
+                return;
+            }
+            fisica.ultimoUso = System.currentTimeMillis();
+            synchronized (libres) {
+                // LIFO: la conexión más reciente se reutiliza primero
+                libres.addFirst(fisica);
+            }
+        } finally {
+            permisos.release();
+        }
+    }
+
+    /**
+     * Tarea periódica: desalojo de ociosas y detección de fugas
+     */
+    private void mantener() {
+        long ahora = System.currentTimeMillis();
+
+        synchronized (libres) {
+            Iterator<ConexionFisica> it = libres.descendingIterator();
+            while (it.hasNext() && libres.size() > minimoOciosas) {
+                ConexionFisica fisica = it.next();
+                if (ahora - fisica.ultimoUso > ociosaMaximaMs) {
+                    it.remove();
+                    fisica.cerrar();
+                }
+            }
+        }
+
+        if (umbralFugaMs > 0) {
+            for (Prestamo prestamo : prestadas) {
+                if (!prestamo.fugaReportada && ahora - prestamo.desde > umbralFugaMs) {
+                    prestamo.fugaReportada = true;
+                    LOG.warn(() -> "Posible fuga de conexión: prestada hace " + (ahora - prestamo.desde)
+                            + " ms al hilo " + prestamo.hilo, prestamo.origen);
+                }
+            }
+        }
+    }
+
+    /**
+     * Conexión física real con su marca de último uso y sus sentencias cacheadas
+     */
+    private static final class ConexionFisica {
+        final Connection conexion;
+        final CacheSentencias sentencias;
+        volatile long ultimoUso = System.currentTimeMillis();
+
+        ConexionFisica(Connection conexion, CacheSentencias sentencias) {
+            this.conexion = conexion;
+            this.sentencias = sentencias;
+        }
+
+        boolean esValida(long validarTrasMs) {
+            try {
+                if (conexion.isClosed()) {
+                    return false;
+                }
+                // Una conexión usada hace poco se da por buena sin ir a la BD
+                return System.currentTimeMillis() - ultimoUso < validarTrasMs || conexion.isValid(1);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        boolean restablecer() {
+            try {
+                if (conexion.isClosed()) {
+                    return false;
+                }
+                if (sentencias != null) {
+                    sentencias.liberarEnUso();
+                }
+                if (!conexion.getAutoCommit()) {
+                    conexion.rollback();
+                    conexion.setAutoCommit(true);
+                }
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        void cerrar() {
+            try {
+                if (sentencias != null) {
+                    sentencias.cerrar();
+                }
+                conexion.close();
+            } catch (SQLException e) {
+                LOG.warn(() -> "Error cerrando conexión física: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Préstamo de una conexión: el proxy entregado al llamador
+     */
+    private final class Prestamo implements InvocationHandler {
+        final ConexionFisica fisica;
+        final Throwable origen;
+        final String hilo = Thread.currentThread().getName();
+        final long desde = System.currentTimeMillis();
+        final Connection proxy;
+        volatile boolean devuelta = false;
+        volatile boolean fugaReportada = false;
+
+        Prestamo(ConexionFisica fisica, Throwable origen) {
+            this.fisica = fisica;
+            this.origen = origen;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!devuelta) {
+                        devuelta = true;
+                        devolver(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return devuelta || fisica.conexion.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexionPrestada[" + fisica.conexion + "]";
+                default:
+                    break;
+            }
+
+            if (devuelta) {
+                throw new SQLException("La conexión ya fue devuelta al pool");
+            }
+
+            // prepareStatement(sql) y prepareStatement(sql, int clavesGeneradas) pasan por la caché
+            if (fisica.sentencias != null && method.getName().equals("prepareStatement")
+                    && (args.length == 1 || (args.length == 2 && args[1] instanceof Integer))) {
+                return fisica.sentencias.preparar(fisica.conexion, (String) args[0],
+                        args.length == 2 ? (Integer) args[1] : -1);
+            }
+
+            try {
+                return method.invoke(fisica.conexion, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.config;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.util.Log;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * ResumenEstadisticas - Tablas de resumen mantenidas por triggers
+ * resumen_autor y resumen_ano guardan libros y disponibles por autor y por año: los paneles
+ * leen unas pocas filas en lugar de agregar toda la tabla libros. A cambio, cada escritura
+ * en libros actualiza también dos filas de resumen, por eso es opcional.
+ */
+final class ResumenEstadisticas {
+
+    private static final Log LOG = Log.de(ResumenEstadisticas.class);
+
+    private static final String[] TRIGGERS = {
+            """
+            CREATE TRIGGER resumen_libros_ai AFTER INSERT ON libros BEGIN
+                INSERT INTO resumen_autor (autor, libros, disponibles) VALUES (new.autor, 1, new.disponible <> 0)
+                    ON CONFLICT (autor) DO UPDATE SET libros = libros + 1, disponibles = disponibles + (new.disponible <> 0);
+                INSERT INTO resumen_ano (ano, libros, disponibles) VALUES (new.ano_publicacion, 1, new.disponible <> 0)
+                    ON CONFLICT (ano) DO UPDATE SET libros = libros + 1, disponibles = disponibles + (new.disponible <> 0);
+            END
+            """,
+            """
+            CREATE TRIGGER resumen_libros_ad AFTER DELETE ON libros BEGIN
+                UPDATE resumen_autor SET libros = libros - 1, disponibles = disponibles - (old.disponible <> 0)
+                    WHERE autor = old.autor;
+                DELETE FROM resumen_autor WHERE autor = old.autor AND libros = 0;
+                UPDATE resumen_ano SET libros = libros - 1, disponibles = disponibles - (old.disponible <> 0)
+                    WHERE ano = old.ano_publicacion;
+                DELETE FROM resumen_ano WHERE ano = old.ano_publicacion AND libros = 0;
+            END
+            """,
+            // Cambiar solo el título no toca el resumen
+            """
+            CREATE TRIGGER resumen_libros_au AFTER UPDATE OF autor, ano_publicacion, disponible ON libros BEGIN
+                UPDATE resumen_autor SET libros = libros - 1, disponibles = disponibles - (old.disponible <> 0)
+                    WHERE autor = old.autor;
+                DELETE FROM resumen_autor WHERE autor = old.autor AND libros = 0;
+                UPDATE resumen_ano SET libros = libros - 1, disponibles = disponibles - (old.disponible <> 0)
+                    WHERE ano = old.ano_publicacion;
+                DELETE FROM resumen_ano WHERE ano = old.ano_publicacion AND libros = 0;
+                INSERT INTO resumen_autor (autor, libros, disponibles) VALUES (new.autor, 1, new.disponible <> 0)
+                    ON CONFLICT (autor) DO UPDATE SET libros = libros + 1, disponibles = disponibles + (new.disponible <> 0);
+                INSERT INTO resumen_ano (ano, libros, disponibles) VALUES (new.ano_publicacion, 1, new.disponible <> 0)
+                    ON CONFLICT (ano) DO UPDATE SET libros = libros + 1, disponibles = disponibles + (new.disponible <> 0);
+            END
+            """
+    };
+
+    private ResumenEstadisticas() {
+    }
+
+    /**
+     * Crear tablas, rellenarlas desde libros y crear los triggers, todo en una transacción
+     * Si ya existen no hace nada: los triggers las han mantenido al día
+     */
+    static void activar(Connection conexion) throws SQLException {
+        if (existe(conexion)) {
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        conexion.setAutoCommit(false);
+        try (Statement stmt = conexion.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE resumen_autor (
+                    autor TEXT PRIMARY KEY COLLATE NOCASE,
+                    libros INTEGER NOT NULL,
+                    disponibles INTEGER NOT NULL
+                )
+            """);
+            stmt.execute("""
+                CREATE TABLE resumen_ano (
+                    ano INTEGER PRIMARY KEY,
+                    libros INTEGER NOT NULL,
+                    disponibles INTEGER NOT NULL
+                )
+            """);
+            stmt.execute("""
+                INSERT INTO resumen_autor (autor, libros, disponibles)
+                SELECT autor, COUNT(*), SUM(disponible <> 0) FROM libros GROUP BY autor
+            """);
+            stmt.execute("""
+                INSERT INTO resumen_ano (ano, libros, disponibles)
+                SELECT ano_publicacion, COUNT(*), SUM(disponible <> 0) FROM libros GROUP BY ano_publicacion
+            """);
+            for (String trigger : TRIGGERS) {
+                stmt.execute(trigger);
+            }
+            conexion.commit();
+            LOG.info(() -> "Tablas de resumen creadas en " + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+        } catch (SQLException e) {
+            conexion.rollback();
+            throw e;
+        } finally {
+            conexion.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Quitar triggers y tablas: desactivado, un resumen sin mantener quedaría desfasado
+     */
+    static void desactivar(Connection conexion) throws SQLException {
+        if (!existe(conexion)) {
+            return;
+        }
+
+        try (Statement stmt = conexion.createStatement()) {
+            stmt.execute("DROP TRIGGER IF EXISTS resumen_libros_ai");
+            stmt.execute("DROP TRIGGER IF EXISTS resumen_libros_ad");
+            stmt.execute("DROP TRIGGER IF EXISTS resumen_libros_au");
+            stmt.execute("DROP TABLE IF EXISTS resumen_autor");
+            stmt.execute("DROP TABLE IF EXISTS resumen_ano");
+        }
+        LOG.info(() -> "Tablas de resumen eliminadas");
+    }
+
+    private static boolean existe(Connection conexion) throws SQLException {
+        try (Statement stmt = conexion.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT COUNT(*) FROM sqlite_master WHERE type = 'trigger' AND name LIKE 'resumen_libros_%'")) {
+            return rs.next() && rs.getInt(1) == TRIGGERS.length;
+        }
+    }
+}
@@ -4,11 +4,20 @@
  */
 package com.mycompany.sistemadegestiondelibrosbibliioteca.controller;
 
+import com.mycompany.sistemadegestiondelibrosbibliioteca.metricas.RegistroMetricas;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.LibroDuplicadoException;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.Resultado;
 import com.mycompany.sistemadegestiondelibrosbibliioteca.model.service.LibroService;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Estadisticas;
 import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.LibroDTO;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Pagina;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Sugerencia;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.util.Log;
 import com.mycompany.sistemadegestiondelibrosbibliioteca.view.BibliotecaView;
 
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
 
 /**
  * LibroController - Controlador MVC
@@ -18,6 +27,8 @@ import java.util.List;
  * @author gian_
  */
 public class LibroController {
+    private static final Log LOG = Log.de(LibroController.class);
+
     private LibroService libroService;  // Referencia al MODEL
     private BibliotecaView view;         // Referencia a la VIEW
 
@@ -28,44 +39,143 @@ public class LibroController {
 
     /**
      * Endpoint: GET /libros/{id}
+     * El Service devuelve un Resultado tipado: el código HTTP sale de su estado
      */
     public void obtenerLibro(Long id) {
-        try {
-            // Coordina con el MODEL para obtener los datos
-            // TODAS las validaciones están en el Service
-            LibroDTO libro = libroService.obtenerLibroPorId(id);
+        // Coordina con el MODEL para obtener los datos
+        // TODAS las validaciones están en el Service
+        Resultado<LibroDTO> resultado = libroService.buscarLibroPorId(id);
 
+        switch (resultado.getEstado()) {
             // Coordina con la VIEW para mostrar la respuesta exitosa
-            view.mostrarLibroEncontrado(libro);
+            case ENCONTRADO -> view.mostrarLibroEncontrado(resultado.getValor());
 
-        } catch (IllegalArgumentException e) {
             // Error 400 - Bad Request (datos inválidos)
-            view.mostrarError(400, "Datos inválidos: " + e.getMessage());
-
-        } catch (RuntimeException e) {
-            if (e.getMessage().contains("404")) {
-                // Error 404 - Not Found
-                view.mostrarError(404, "Libro no encontrado");
-            } else {
-                // Error 500 - Internal Server Error
-                view.mostrarError(500, "Error interno del servidor");
+            case INVALIDO -> {
+                LOG.debug(() -> "GET /libros/" + id + " rechazado: " + resultado.getMensaje());
+                view.mostrarError(400, "Datos inválidos: " + resultado.getMensaje());
             }
+
+            // Error 404 - Not Found
+            case NO_ENCONTRADO -> view.mostrarError(404, "Libro no encontrado");
+
+            // Error 409 - Conflict
+            case CONFLICTO -> view.mostrarError(409, resultado.getMensaje());
+
+            // Error 500 - Internal Server Error (el Service ya lo registró)
+            case FALLO -> view.mostrarError(500, "Error interno del servidor");
         }
     }
 
+    /**
+     * Endpoint: GET /libros
+     * Recorre los libros en streaming: memoria constante sea cual sea el catálogo
+     */
     public void listarTodosLosLibros() {
-        try {
-            // Coordina con el MODEL para obtener todos los libros
-            List<LibroDTO> libros = libroService.obtenerTodosLosLibros();
+        // Coordina con el MODEL para recorrer todos los libros
+        try (Stream<LibroDTO> libros = libroService.streamTodosLosLibros()) {
 
-            // Coordina con la VIEW para mostrar la lista
+            // Coordina con la VIEW para mostrar la lista a medida que se lee
             view.mostrarListaLibros(libros);
 
         } catch (Exception e) {
             // Error 500 - Internal Server Error
+            LOG.error(() -> "GET /libros falló", e);
             view.mostrarError(500, "Error al obtener la lista de libros: " + e.getMessage());
         }
     }
+    /**
+     * Endpoint: GET /libros?orden={id|titulo|autor}&token={token}&tamano={n}
+     * Devuelve el token de la página siguiente (null si no hay más o hubo error)
+     */
+    public String listarLibrosPaginados(String orden, String token, int tamano) {
+        try {
+            // Coordina con el MODEL para obtener la página
+            Pagina<LibroDTO> pagina = libroService.obtenerPaginaLibros(orden, token, tamano);
+
+            // Coordina con la VIEW para mostrar la página
+            view.mostrarPaginaLibros(pagina);
+            return pagina.getTokenSiguiente();
+
+        } catch (IllegalArgumentException e) {
+            // Error 400 - Bad Request (orden, token o tamaño inválidos)
+            view.mostrarError(400, "Datos inválidos: " + e.getMessage());
+            return null;
+
+        } catch (Exception e) {
+            // Error 500 - Internal Server Error
+            LOG.error(() -> "GET /libros?orden=" + orden + " falló", e);
+            view.mostrarError(500, "Error al obtener la página de libros: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Endpoint: GET /libros?q={texto}&limite={n}
+     */
+    public void buscarLibros(String consulta, int limite) {
+        try {
+            // Coordina con el MODEL para buscar
+            List<LibroDTO> libros = libroService.buscarLibros(consulta, limite);
+
+            // Coordina con la VIEW para mostrar los resultados
+            view.mostrarResultadosBusqueda(consulta, libros);
+
+        } catch (IllegalArgumentException e) {
+            // Error 400 - Bad Request (consulta o límite inválidos)
+            view.mostrarError(400, "Datos inválidos: " + e.getMessage());
+
+        } catch (Exception e) {
+            // Error 500 - Internal Server Error
+            LOG.error(() -> "GET /libros?q=" + consulta + " falló", e);
+            view.mostrarError(500, "Error al buscar libros: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Endpoint: GET /sugerencias?q={prefijo}&limite={n}
+     */
+    public void autocompletar(String prefijo, int limite) {
+        try {
+            // Coordina con el MODEL para obtener las compleciones
+            List<Sugerencia> sugerencias = libroService.autocompletar(prefijo, limite);
+
+            // Coordina con la VIEW para mostrarlas
+            view.mostrarSugerencias(prefijo, sugerencias);
+
+        } catch (IllegalArgumentException e) {
+            // Error 400 - Bad Request (prefijo o límite inválidos)
+            view.mostrarError(400, "Datos inválidos: " + e.getMessage());
+
+        } catch (Exception e) {
+            // Error 500 - Internal Server Error
+            LOG.error(() -> "GET /sugerencias?q=" + prefijo + " falló", e);
+            view.mostrarError(500, "Error al autocompletar: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Endpoint: GET /estadisticas?autores={n}
+     */
+    public void mostrarEstadisticas(int limiteAutores) {
+        try {
+            // Coordina con el MODEL para agregar los conteos
+            Estadisticas estadisticas = libroService.obtenerEstadisticas(limiteAutores);
+
+            // Coordina con la VIEW para mostrarlos
+            view.mostrarEstadisticas(estadisticas);
+
+        } catch (IllegalArgumentException e) {
+            // Error 400 - Bad Request (límite inválido)
+            view.mostrarError(400, "Datos inválidos: " + e.getMessage());
+
+        } catch (Exception e) {
+            // Error 500 - Internal Server Error
+            LOG.error(() -> "GET /estadisticas falló", e);
+            view.mostrarError(500, "Error al calcular estadísticas: " + e.getMessage());
+        }
+    }
+
     /**
      * Endpoint: POST /libros
      * Maneja la petición de creación de nuevo libro
@@ -84,9 +194,26 @@ public class LibroController {
             // Error 400 - Bad Request (datos inválidos)
             view.mostrarError(400, "Datos inválidos: " + e.getMessage());
 
+        } catch (LibroDuplicadoException e) {
+            // Error 409 - Conflict (mismo título y autor)
+            view.mostrarError(409, e.getMessage());
+
+        } catch (RejectedExecutionException e) {
+            // Error 503 - Service Unavailable (cola de escritura llena o cerrada)
+            view.mostrarError(503, e.getMessage());
+
         } catch (Exception e) {
             // Error 500 - Internal Server Error
+            LOG.error(() -> "POST /libros falló", e);
             view.mostrarError(500, "Error interno del servidor: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Endpoint: GET /metricas
+     * Muestra conteo, errores y latencias por operación
+     */
+    public void mostrarMetricas() {
+        view.mostrarMetricas(RegistroMetricas.instantanea());
+    }
+}
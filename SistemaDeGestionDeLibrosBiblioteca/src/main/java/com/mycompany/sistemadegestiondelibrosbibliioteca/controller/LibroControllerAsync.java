@@ -0,0 +1,234 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.controller;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.config.DatabaseConfig;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.Resultado;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ConteoAno;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Estadisticas;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.LibroDTO;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Pagina;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ResumenDisponibilidad;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Sugerencia;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.service.LibroService;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.util.Ejecutores;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * LibroControllerAsync - Controlador asíncrono para muchos clientes concurrentes
+ * Cada endpoint corre en un hilo virtual (Java 21+; en Java 17 un pool acotado de hilos)
+ * y devuelve un CompletableFuture en lugar de escribir en la vista.
+ *
+ * - Concurrencia hacia la BD acotada por un semáforo (los hilos virtuales esperan sin coste)
+ * - Contrapresión: si hay demasiadas escrituras pendientes, o demasiados hilos esperando ya turno en el
+ *   carril de escritura de la BD, agregarLibro/actualizarLibro fallan al instante con SaturacionException
+ *   (503) en lugar de encolar sin límite
+ *
+ * @author gian_
+ */
+public class LibroControllerAsync implements AutoCloseable {
+
+    private static final int MAX_CONCURRENCIA_BD = Integer.getInteger("biblioteca.async.concurrenciaBD", 16);
+    private static final int MAX_ESCRITURAS_PENDIENTES = Integer.getInteger("biblioteca.async.escriturasPendientes", 256);
+    // Hilos en la cola del carril de escritura (de cualquier origen) a partir de los que se rechaza
+    private static final int MAX_ESCRITORES_EN_ESPERA = Integer.getInteger("biblioteca.async.escritoresEnEspera", 8);
+
+    private final LibroService libroService;  // Referencia al MODEL
+    private final ExecutorService executor;
+    private final Semaphore permisosBD;
+    private final Semaphore permisosEscritura;
+    private final int maxEscritoresEnEspera;
+
+    public LibroControllerAsync() {
+        this(new LibroService(), MAX_CONCURRENCIA_BD, MAX_ESCRITURAS_PENDIENTES);
+    }
+
+    public LibroControllerAsync(LibroService libroService, int maxConcurrenciaBD, int maxEscriturasPendientes) {
+        this(libroService, maxConcurrenciaBD, maxEscriturasPendientes, MAX_ESCRITORES_EN_ESPERA);
+    }
+
+    public LibroControllerAsync(LibroService libroService, int maxConcurrenciaBD, int maxEscriturasPendientes,
+                                int maxEscritoresEnEspera) {
+        this.libroService = libroService;
+        this.maxEscritoresEnEspera = maxEscritoresEnEspera;
+        this.executor = Ejecutores.virtualesOAcotado("libro-async", maxConcurrenciaBD);
+        this.permisosBD = new Semaphore(maxConcurrenciaBD, true);
+        this.permisosEscritura = new Semaphore(maxEscriturasPendientes);
+    }
+
+    /**
+     * Endpoint: GET /libros/{id}
+     * ID inválido o inexistente no fallan el futuro: llegan como estado del Resultado
+     */
+    public CompletableFuture<Resultado<LibroDTO>> obtenerLibro(Long id) {
+        return ejecutar(() -> libroService.buscarLibroPorId(id));
+    }
+
+    /**
+     * Endpoint: GET /libros
+     * Materializa la lista; para catálogos grandes usar listarLibrosPaginados
+     */
+    public CompletableFuture<List<LibroDTO>> listarTodosLosLibros() {
+        return ejecutar(libroService::obtenerTodosLosLibros);
+    }
+
+    /**
+     * Endpoint: GET /libros (streaming)
+     * Entrega cada libro al destino a medida que se lee; el futuro devuelve cuántos se entregaron
+     */
+    public CompletableFuture<Long> recorrerTodosLosLibros(Consumer<LibroDTO> destino) {
+        return ejecutar(() -> {
+            try (Stream<LibroDTO> libros = libroService.streamTodosLosLibros()) {
+                long total = 0;
+                for (Iterator<LibroDTO> it = libros.iterator(); it.hasNext(); total++) {
+                    destino.accept(it.next());
+                }
+                return total;
+            }
+        });
+    }
+
+    /**
+     * Endpoint: GET /libros?orden={id|titulo|autor}&token={token}&tamano={n}
+     */
+    public CompletableFuture<Pagina<LibroDTO>> listarLibrosPaginados(String orden, String token, int tamano) {
+        return ejecutar(() -> libroService.obtenerPaginaLibros(orden, token, tamano));
+    }
+
+    /**
+     * Endpoint: GET /libros?q={texto}&limite={n}
+     */
+    public CompletableFuture<List<LibroDTO>> buscarLibros(String consulta, int limite) {
+        return ejecutar(() -> libroService.buscarLibros(consulta, limite));
+    }
+
+    /**
+     * Endpoint: GET /estadisticas?autores={n}
+     */
+    public CompletableFuture<Estadisticas> obtenerEstadisticas(int limiteAutores) {
+        return ejecutar(() -> libroService.obtenerEstadisticas(limiteAutores));
+    }
+
+    /**
+     * Endpoint: GET /estadisticas/anos?desde={año}&hasta={año}
+     */
+    public CompletableFuture<List<ConteoAno>> obtenerHistogramaAnos(int desde, int hasta) {
+        return ejecutar(() -> libroService.obtenerHistogramaAnos(desde, hasta));
+    }
+
+    /**
+     * Endpoint: GET /estadisticas/conteo?autor={autor}&desde={año}&hasta={año}
+     */
+    public CompletableFuture<ResumenDisponibilidad> contarLibros(String autor, Integer desde, Integer hasta) {
+        return ejecutar(() -> libroService.contarLibros(autor, desde, hasta));
+    }
+
+    /**
+     * Endpoint: GET /sugerencias?q={prefijo}&limite={n}
+     * Normalmente se responde desde memoria (LibroDAOAutocompletado): no se cambia de hilo
+     */
+    public CompletableFuture<List<Sugerencia>> autocompletar(String prefijo, int limite) {
+        try {
+            return CompletableFuture.completedFuture(libroService.autocompletar(prefijo, limite));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Endpoint: POST /libros
+     * Rechaza de inmediato (503) si el carril de escritura está saturado; 409 si el libro ya existe
+     */
+    public CompletableFuture<LibroDTO> agregarLibro(String titulo, String autor, String anoPublicacionStr) {
+        return escribir(() -> libroService.agregarLibro(titulo, autor, anoPublicacionStr));
+    }
+
+    /**
+     * Endpoint: PUT /libros/{id}
+     * Con versión es un único UPDATE condicional; si otro escritor se adelantó falla con 409
+     */
+    public CompletableFuture<LibroDTO> actualizarLibro(Long id, Long version, String titulo, String autor,
+                                                      String anoPublicacionStr) {
+        return escribir(() -> libroService.actualizarLibro(id, version, titulo, autor, anoPublicacionStr));
+    }
+
+    /**
+     * Código HTTP que corresponde a un fallo de los futuros de este controlador
+     */
+    public static int codigoHttp(Throwable error) {
+        Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+
+        if (causa instanceof SaturacionException || causa instanceof RejectedExecutionException) {
+            return 503;
+        }
+        return Resultado.desdeError(causa).getCodigoHttp();
+    }
+
+    /**
+     * Escritura con contrapresión: rechaza de inmediato (503) si hay demasiadas pendientes
+     * o si el carril de escritura ya tiene cola (otra escritura solo esperaría detrás)
+     */
+    private <T> CompletableFuture<T> escribir(Supplier<T> operacion) {
+        if (DatabaseConfig.getEscritoresEnEspera() >= maxEscritoresEnEspera) {
+            return CompletableFuture.failedFuture(
+                    new SaturacionException("Carril de escritura saturado, reintente más tarde"));
+        }
+        if (!permisosEscritura.tryAcquire()) {
+            return CompletableFuture.failedFuture(
+                    new SaturacionException("Demasiadas escrituras pendientes, reintente más tarde"));
+        }
+
+        CompletableFuture<T> resultado;
+        try {
+            resultado = ejecutar(operacion);
+        } catch (RuntimeException e) {
+            permisosEscritura.release();
+            throw e;
+        }
+        return resultado.whenComplete((valor, error) -> permisosEscritura.release());
+    }
+
+    /**
+     * Dejar de aceptar peticiones y esperar a las que están en curso
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ========================================================================
+    // MÉTODOS AUXILIARES
+    // ========================================================================
+
+    private <T> CompletableFuture<T> ejecutar(Supplier<T> tarea) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permisosBD.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return tarea.get();
+            } finally {
+                permisosBD.release();
+            }
+        }, executor);
+    }
+}
@@ -0,0 +1,15 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.controller;
+
+/**
+ * SaturacionException - La petición se rechaza porque el carril de escritura está lleno
+ * Equivale a HTTP 503 Service Unavailable: el cliente debe reintentar más tarde
+ */
+public class SaturacionException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SaturacionException(String mensaje) {
+        // Sin traza: es un rechazo esperado bajo carga, no un fallo
+        super(mensaje, null, false, false);
+    }
+}
@@ -0,0 +1,193 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.http;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.metricas.InstantaneaOperacion;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.LibroDTO;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * EscritorJson - Codificador JSON en streaming, sin dependencias
+ * Escribe directamente sobre un Writer: no construye árboles ni cadenas intermedias,
+ * así una lista de cualquier tamaño se envía con memoria constante.
+ */
+public class EscritorJson {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int PROFUNDIDAD_MAXIMA = 32;
+
+    private final Writer salida;
+
+    // Por cada nivel abierto: si ya se escribió algún elemento (para poner la coma)
+    private final boolean[] conElementos = new boolean[PROFUNDIDAD_MAXIMA];
+    private int profundidad = 0;
+    private boolean trasNombre = false;
+
+    public EscritorJson(Writer salida) {
+        this.salida = salida;
+    }
+
+    public EscritorJson inicioObjeto() throws IOException {
+        return abrir('{');
+    }
+
+    public EscritorJson finObjeto() throws IOException {
+        return cerrar('}');
+    }
+
+    public EscritorJson inicioArreglo() throws IOException {
+        return abrir('[');
+    }
+
+    public EscritorJson finArreglo() throws IOException {
+        return cerrar(']');
+    }
+
+    /**
+     * Nombre de campo dentro de un objeto; el siguiente valor es el suyo
+     */
+    public EscritorJson nombre(String nombre) throws IOException {
+        separar();
+        escribirCadena(nombre);
+        salida.write(':');
+        trasNombre = true;
+        return this;
+    }
+
+    public EscritorJson valor(String valor) throws IOException {
+        separar();
+        if (valor == null) {
+            salida.write("null");
+        } else {
+            escribirCadena(valor);
+        }
+        return this;
+    }
+
+    public EscritorJson valor(Number valor) throws IOException {
+        separar();
+        salida.write(valor == null ? "null" : valor.toString());
+        return this;
+    }
+
+    public EscritorJson valor(long valor) throws IOException {
+        separar();
+        salida.write(Long.toString(valor));
+        return this;
+    }
+
+    public EscritorJson valor(double valor) throws IOException {
+        separar();
+        // JSON no admite NaN ni infinitos
+        salida.write(Double.isFinite(valor) ? Double.toString(valor) : "null");
+        return this;
+    }
+
+    public EscritorJson valor(boolean valor) throws IOException {
+        separar();
+        salida.write(valor ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * Libro como objeto JSON
+     */
+    public EscritorJson libro(LibroDTO libro) throws IOException {
+        return inicioObjeto()
+                .nombre("id").valor(libro.getId())
+                .nombre("titulo").valor(libro.getTitulo())
+                .nombre("autor").valor(libro.getAutor())
+                .nombre("anoPublicacion").valor(libro.getAnoPublicacion())
+                .nombre("version").valor(libro.getVersion())
+                .finObjeto();
+    }
+
+    /**
+     * Métricas de una operación como objeto JSON (latencias en microsegundos)
+     */
+    public EscritorJson metricas(InstantaneaOperacion metricas) throws IOException {
+        return inicioObjeto()
+                .nombre("operacion").valor(metricas.nombre())
+                .nombre("total").valor(metricas.total())
+                .nombre("errores").valor(metricas.errores())
+                .nombre("mediaMicros").valor(metricas.mediaMicros())
+                .nombre("p50Micros").valor(metricas.p50Micros())
+                .nombre("p99Micros").valor(metricas.p99Micros())
+                .nombre("p999Micros").valor(metricas.p999Micros())
+                .nombre("maximoMicros").valor(metricas.maximoMicros())
+                .finObjeto();
+    }
+
+    public void flush() throws IOException {
+        salida.flush();
+    }
+
+    // ========================================================================
+    // MÉTODOS AUXILIARES
+    // ========================================================================
+
+    private EscritorJson abrir(char apertura) throws IOException {
+        separar();
+        if (profundidad == PROFUNDIDAD_MAXIMA) {
+            throw new IllegalStateException("Anidamiento JSON demasiado profundo");
+        }
+        salida.write(apertura);
+        conElementos[profundidad++] = false;
+        return this;
+    }
+
+    private EscritorJson cerrar(char cierre) throws IOException {
+        if (profundidad == 0) {
+            throw new IllegalStateException("No hay objeto ni arreglo abierto");
+        }
+        profundidad--;
+        salida.write(cierre);
+        return this;
+    }
+
+    /**
+     * Coma entre elementos del mismo nivel (salvo tras "nombre":)
+     */
+    private void separar() throws IOException {
+        if (trasNombre) {
+            trasNombre = false;
+            return;
+        }
+        if (profundidad > 0) {
+            if (conElementos[profundidad - 1]) {
+                salida.write(',');
+            }
+            conElementos[profundidad - 1] = true;
+        }
+    }
+
+    /**
+     * Cadena entre comillas, escapando solo lo que exige RFC 8259
+     * Los tramos sin caracteres especiales se copian de una vez
+     */
+    private void escribirCadena(String texto) throws IOException {
+        salida.write('"');
+        int inicioTramo = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            salida.write(texto, inicioTramo, i - inicioTramo);
+            inicioTramo = i + 1;
+            switch (c) {
+                case '"' -> salida.write("\\\"");
+                case '\\' -> salida.write("\\\\");
+                case '\n' -> salida.write("\\n");
+                case '\r' -> salida.write("\\r");
+                case '\t' -> salida.write("\\t");
+                default -> {
+                    salida.write("\\u00");
+                    salida.write(HEX[c >> 4]);
+                    salida.write(HEX[c & 0xF]);
+                }
+            }
+        }
+        salida.write(texto, inicioTramo, texto.length() - inicioTramo);
+        salida.write('"');
+    }
+}
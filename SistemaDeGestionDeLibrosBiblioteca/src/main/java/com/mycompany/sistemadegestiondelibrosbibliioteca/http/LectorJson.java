@@ -0,0 +1,170 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.http;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LectorJson - Lector mínimo de objetos JSON planos
+ * Suficiente para los cuerpos de POST: un objeto cuyos valores son cadenas, números,
+ * booleanos o null. Cada valor se devuelve como texto (null si era null) para que el
+ * Service aplique sus propias validaciones. Cualquier otra forma es IllegalArgumentException.
+ */
+public final class LectorJson {
+
+    private final String texto;
+    private int pos = 0;
+
+    private LectorJson(String texto) {
+        this.texto = texto;
+    }
+
+    /**
+     * Leer un objeto plano {"campo": valor, ...}
+     */
+    public static Map<String, String> leerObjeto(String texto) {
+        LectorJson lector = new LectorJson(texto);
+        Map<String, String> campos = lector.objeto();
+        lector.saltarEspacios();
+        if (lector.pos != texto.length()) {
+            throw lector.error("contenido después del objeto");
+        }
+        return campos;
+    }
+
+    private Map<String, String> objeto() {
+        Map<String, String> campos = new LinkedHashMap<>();
+        esperar('{');
+        saltarEspacios();
+        if (consumir('}')) {
+            return campos;
+        }
+        do {
+            saltarEspacios();
+            String nombre = cadena();
+            saltarEspacios();
+            esperar(':');
+            saltarEspacios();
+            if (campos.put(nombre, valor()) != null) {
+                throw error("campo repetido '" + nombre + "'");
+            }
+            saltarEspacios();
+        } while (consumir(','));
+        esperar('}');
+        return campos;
+    }
+
+    private String valor() {
+        if (pos >= texto.length()) {
+            throw error("se esperaba un valor");
+        }
+        char c = texto.charAt(pos);
+        if (c == '"') {
+            return cadena();
+        }
+        if (texto.startsWith("null", pos)) {
+            pos += 4;
+            return null;
+        }
+        if (texto.startsWith("true", pos)) {
+            pos += 4;
+            return "true";
+        }
+        if (texto.startsWith("false", pos)) {
+            pos += 5;
+            return "false";
+        }
+        if (c == '-' || (c >= '0' && c <= '9')) {
+            return numero();
+        }
+        throw error("valor no admitido");
+    }
+
+    private String numero() {
+        int inicio = pos;
+        while (pos < texto.length() && "+-0123456789.eE".indexOf(texto.charAt(pos)) >= 0) {
+            pos++;
+        }
+        return texto.substring(inicio, pos);
+    }
+
+    private String cadena() {
+        esperar('"');
+        StringBuilder sb = null;
+        int inicioTramo = pos;
+        while (pos < texto.length()) {
+            char c = texto.charAt(pos);
+            if (c == '"') {
+                String resultado = sb == null
+                        ? texto.substring(inicioTramo, pos)
+                        : sb.append(texto, inicioTramo, pos).toString();
+                pos++;
+                return resultado;
+            }
+            if (c < 0x20) {
+                throw error("carácter de control sin escapar");
+            }
+            if (c != '\\') {
+                pos++;
+                continue;
+            }
+            if (sb == null) {
+                sb = new StringBuilder();
+            }
+            sb.append(texto, inicioTramo, pos);
+            if (++pos >= texto.length()) {
+                break;
+            }
+            char escape = texto.charAt(pos++);
+            switch (escape) {
+                case '"', '\\', '/' -> sb.append(escape);
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' -> {
+                    if (pos + 4 > texto.length()) {
+                        throw error("escape \\u incompleto");
+                    }
+                    try {
+                        sb.append((char) Integer.parseInt(texto.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("escape \\u inválido");
+                    }
+                    pos += 4;
+                }
+                default -> throw error("escape inválido");
+            }
+            inicioTramo = pos;
+        }
+        throw error("cadena sin cerrar");
+    }
+
+    private void saltarEspacios() {
+        while (pos < texto.length()) {
+            char c = texto.charAt(pos);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private boolean consumir(char c) {
+        if (pos < texto.length() && texto.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void esperar(char c) {
+        if (!consumir(c)) {
+            throw error("se esperaba '" + c + "'");
+        }
+    }
+
+    private IllegalArgumentException error(String detalle) {
+        return new IllegalArgumentException("JSON inválido en la posición " + pos + ": " + detalle);
+    }
+}
@@ -0,0 +1,579 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.http;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.controller.LibroControllerAsync;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.metricas.InstantaneaOperacion;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.metricas.RegistroMetricas;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.Resultado;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ConteoAno;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ConteoAutor;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.LibroDTO;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Pagina;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Sugerencia;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.util.Ejecutores;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.util.Log;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Year;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ServidorHttp - Front end HTTP/JSON de los endpoints de LibroController
+ * Construido sobre com.sun.net.httpserver del JDK, sin dependencias:
+ *  - GET  /libros/{id}
+ *  - GET  /libros                               (todos, en streaming con chunked)
+ *  - GET  /libros?orden=&token=&tamano=          (paginado por keyset)
+ *  - GET  /libros?q=&limite=                     (búsqueda de texto completo)
+ *  - POST /libros   {"titulo", "autor", "anoPublicacion"}                (409 si ya existe)
+ *  - PUT  /libros/{id}   {"titulo", "autor", "anoPublicacion", "version"}   (409 si la versión cambió)
+ *  - GET  /sugerencias?q=&limite=                (autocompletado)
+ *  - GET  /estadisticas?autores=               (disponibilidad, autores con más libros, años)
+ *  - GET  /estadisticas/anos?desde=&hasta=       (histograma por año de publicación)
+ *  - GET  /estadisticas/conteo?autor=&desde=&hasta=   (total y disponibles del filtro)
+ *  - GET  /metricas
+ *
+ * Las peticiones se atienden en hilos virtuales (o un pool acotado en Java 17) y se
+ * delegan en LibroControllerAsync; la respuesta se escribe al completarse el futuro.
+ * Las conexiones HTTP/1.1 son persistentes (keep-alive): toda respuesta lleva
+ * Content-Length o va en chunked, así el cliente puede reutilizar el socket.
+ */
+public class ServidorHttp implements AutoCloseable {
+
+    private static final Log LOG = Log.de(ServidorHttp.class);
+
+    // Parámetros del servidor (sobrescribibles con -Dbiblioteca.http.*)
+    public static final int PUERTO_DEFECTO = Integer.getInteger("biblioteca.http.puerto", 8080);
+    private static final int HILOS = Integer.getInteger("biblioteca.http.hilos", 32);
+    private static final int BACKLOG = Integer.getInteger("biblioteca.http.backlog", 256);
+
+    private static final int MAX_CUERPO = 16 * 1024;
+    private static final int TAMANO_PAGINA_DEFECTO = 20;
+    private static final String TIPO_JSON = "application/json; charset=utf-8";
+
+    private final HttpServer servidor;
+    private final ExecutorService executor;
+    private final LibroControllerAsync controller;
+
+    /**
+     * Escritura del cuerpo JSON de una respuesta
+     */
+    @FunctionalInterface
+    private interface EscrituraJson {
+        void escribir(EscritorJson json) throws IOException;
+    }
+
+    /**
+     * Escritura del cuerpo JSON a partir del valor de un futuro
+     */
+    @FunctionalInterface
+    private interface CuerpoJson<T> {
+        void escribir(EscritorJson json, T valor) throws IOException;
+    }
+
+    public ServidorHttp(int puerto, LibroControllerAsync controller) throws IOException {
+        this.controller = controller;
+        this.servidor = HttpServer.create(new InetSocketAddress(puerto), BACKLOG);
+        this.executor = Ejecutores.virtualesOAcotado("http", HILOS);
+        servidor.setExecutor(executor);
+        servidor.createContext("/libros", this::manejarLibros);
+        servidor.createContext("/sugerencias", this::manejarSugerencias);
+        servidor.createContext("/estadisticas", this::manejarEstadisticas);
+        servidor.createContext("/metricas", this::manejarMetricas);
+    }
+
+    public void iniciar() {
+        servidor.start();
+        LOG.info(() -> "Servidor HTTP escuchando en el puerto " + getPuerto());
+    }
+
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    /**
+     * Dejar de aceptar conexiones, esperar hasta 2 s a las peticiones en curso
+     * y cerrar el controlador
+     */
+    @Override
+    public void close() {
+        servidor.stop(2);
+        controller.close();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LOG.info(() -> "Servidor HTTP detenido");
+    }
+
+    // ========================================================================
+    // ENRUTADO
+    // ========================================================================
+
+    private void manejarLibros(HttpExchange intercambio) {
+        try {
+            String ruta = intercambio.getRequestURI().getPath();
+            String metodo = intercambio.getRequestMethod();
+
+            if (ruta.equals("/libros") || ruta.equals("/libros/")) {
+                switch (metodo) {
+                    case "GET" -> listarLibros(intercambio);
+                    case "POST" -> agregarLibro(intercambio);
+                    default -> metodoNoPermitido(intercambio, "GET, POST");
+                }
+            } else if (ruta.startsWith("/libros/") && ruta.indexOf('/', "/libros/".length()) < 0) {
+                String idTexto = ruta.substring("/libros/".length());
+                switch (metodo) {
+                    case "GET" -> obtenerLibro(intercambio, idTexto);
+                    case "PUT" -> actualizarLibro(intercambio, idTexto);
+                    default -> metodoNoPermitido(intercambio, "GET, PUT");
+                }
+            } else {
+                enviarError(intercambio, 404, "Recurso no encontrado");
+            }
+        } catch (RuntimeException e) {
+            responderError(intercambio, e);
+        }
+    }
+
+    private void manejarSugerencias(HttpExchange intercambio) {
+        if (!intercambio.getRequestMethod().equals("GET")) {
+            metodoNoPermitido(intercambio, "GET");
+            return;
+        }
+        try {
+            Map<String, String> parametros = parametros(intercambio);
+            int limite = entero(parametros, "limite", 8, "El límite debe ser un número");
+            responder(intercambio, controller.autocompletar(parametros.get("q"), limite), 200, (json, sugerencias) -> {
+                json.inicioArreglo();
+                for (Sugerencia sugerencia : sugerencias) {
+                    json.inicioObjeto()
+                            .nombre("texto").valor(sugerencia.texto())
+                            .nombre("campo").valor(sugerencia.campo().name().toLowerCase())
+                            .nombre("libros").valor(sugerencia.libros())
+                            .finObjeto();
+                }
+                json.finArreglo();
+            });
+        } catch (RuntimeException e) {
+            responderError(intercambio, e);
+        }
+    }
+
+    private void manejarEstadisticas(HttpExchange intercambio) {
+        if (!intercambio.getRequestMethod().equals("GET")) {
+            metodoNoPermitido(intercambio, "GET");
+            return;
+        }
+        try {
+            Map<String, String> parametros = parametros(intercambio);
+            String ruta = intercambio.getRequestURI().getPath();
+
+            if (ruta.equals("/estadisticas/anos")) {
+                int desde = entero(parametros, "desde", 1000, "El año inicial debe ser un número");
+                int hasta = entero(parametros, "hasta", Year.now().getValue(), "El año final debe ser un número");
+                responder(intercambio, controller.obtenerHistogramaAnos(desde, hasta), 200, ServidorHttp::escribirAnos);
+                return;
+            }
+            if (ruta.equals("/estadisticas/conteo")) {
+                Integer desde = parametros.containsKey("desde")
+                        ? entero(parametros, "desde", 0, "El año inicial debe ser un número") : null;
+                Integer hasta = parametros.containsKey("hasta")
+                        ? entero(parametros, "hasta", 0, "El año final debe ser un número") : null;
+                responder(intercambio, controller.contarLibros(parametros.get("autor"), desde, hasta), 200,
+                        (json, conteo) -> json.inicioObjeto()
+                                .nombre("total").valor(conteo.total())
+                                .nombre("disponibles").valor(conteo.disponibles())
+                                .nombre("prestados").valor(conteo.prestados())
+                                .finObjeto());
+                return;
+            }
+            if (!ruta.equals("/estadisticas") && !ruta.equals("/estadisticas/")) {
+                enviarError(intercambio, 404, "Recurso no encontrado: " + ruta);
+                return;
+            }
+
+            int autores = entero(parametros, "autores", 10, "El límite de autores debe ser un número");
+            responder(intercambio, controller.obtenerEstadisticas(autores), 200, (json, estadisticas) -> {
+                json.inicioObjeto()
+                        .nombre("total").valor(estadisticas.disponibilidad().total())
+                        .nombre("disponibles").valor(estadisticas.disponibilidad().disponibles())
+                        .nombre("prestados").valor(estadisticas.disponibilidad().prestados())
+                        .nombre("autores").inicioArreglo();
+                for (ConteoAutor autor : estadisticas.autores()) {
+                    json.inicioObjeto()
+                            .nombre("autor").valor(autor.autor())
+                            .nombre("libros").valor(autor.libros())
+                            .nombre("disponibles").valor(autor.disponibles())
+                            .finObjeto();
+                }
+                json.finArreglo().nombre("anos");
+                escribirAnos(json, estadisticas.anos());
+                json.finObjeto();
+            });
+        } catch (RuntimeException e) {
+            responderError(intercambio, e);
+        }
+    }
+
+    private void manejarMetricas(HttpExchange intercambio) {
+        if (!intercambio.getRequestMethod().equals("GET")) {
+            metodoNoPermitido(intercambio, "GET");
+            return;
+        }
+        enviarJson(intercambio, 200, json -> {
+            json.inicioArreglo();
+            for (InstantaneaOperacion metricas : RegistroMetricas.instantanea()) {
+                json.metricas(metricas);
+            }
+            json.finArreglo();
+        });
+    }
+
+    // ========================================================================
+    // ENDPOINTS
+    // ========================================================================
+
+    /**
+     * GET /libros/{id}
+     */
+    private void obtenerLibro(HttpExchange intercambio, String idTexto) {
+        Long id = numero(idTexto, "El ID debe ser un número");
+        controller.obtenerLibro(id).whenComplete((resultado, error) -> {
+            if (error != null) {
+                responderError(intercambio, error);
+            } else if (resultado.isEncontrado()) {
+                enviarJson(intercambio, 200, json -> json.libro(resultado.getValor()));
+            } else {
+                responderResultado(intercambio, resultado);
+            }
+        });
+    }
+
+    /**
+     * GET /libros: búsqueda si llega q; paginado si llega orden, token o tamano;
+     * si no, todos en streaming
+     */
+    private void listarLibros(HttpExchange intercambio) {
+        Map<String, String> parametros = parametros(intercambio);
+
+        if (parametros.isEmpty()) {
+            RespuestaStreaming respuesta = new RespuestaStreaming(intercambio);
+            controller.recorrerTodosLosLibros(respuesta::escribir)
+                    .whenComplete((total, error) -> respuesta.terminar(error));
+            return;
+        }
+
+        if (parametros.containsKey("q")) {
+            int limite = entero(parametros, "limite", TAMANO_PAGINA_DEFECTO, "El límite debe ser un número");
+            responder(intercambio, controller.buscarLibros(parametros.get("q"), limite), 200, (json, libros) -> {
+                json.inicioArreglo();
+                for (LibroDTO libro : libros) {
+                    json.libro(libro);
+                }
+                json.finArreglo();
+            });
+            return;
+        }
+
+        String orden = parametros.getOrDefault("orden", "id");
+        String token = parametros.get("token");
+        int tamano = entero(parametros, "tamano", TAMANO_PAGINA_DEFECTO, "El tamaño de página debe ser un número");
+
+        responder(intercambio, controller.listarLibrosPaginados(orden, token, tamano), 200, ServidorHttp::escribirPagina);
+    }
+
+    /**
+     * POST /libros
+     */
+    private void agregarLibro(HttpExchange intercambio) {
+        Map<String, String> campos = leerCuerpo(intercambio);
+        if (campos == null) {
+            return;
+        }
+
+        CompletableFuture<LibroDTO> creado = controller.agregarLibro(
+                campos.get("titulo"), campos.get("autor"), campos.get("anoPublicacion"));
+
+        // Sin ID el libro solo está encolado (modo ENCOLAR): 202 Accepted
+        creado.whenComplete((libro, error) -> {
+            if (error != null) {
+                responderError(intercambio, error);
+            } else if (libro.getId() == null) {
+                enviarJson(intercambio, 202, json -> json.libro(libro));
+            } else {
+                intercambio.getResponseHeaders().set("Location", "/libros/" + libro.getId());
+                enviarJson(intercambio, 201, json -> json.libro(libro));
+            }
+        });
+    }
+
+    /**
+     * PUT /libros/{id}
+     * Sin "version" el servidor lee el libro y lo guarda con la versión leída
+     */
+    private void actualizarLibro(HttpExchange intercambio, String idTexto) {
+        Long id = numero(idTexto, "El ID debe ser un número");
+        Map<String, String> campos = leerCuerpo(intercambio);
+        if (campos == null) {
+            return;
+        }
+
+        Long version = campos.get("version") == null ? null : numero(campos.get("version"), "La versión debe ser un número");
+        responder(intercambio, controller.actualizarLibro(id, version,
+                campos.get("titulo"), campos.get("autor"), campos.get("anoPublicacion")), 200, EscritorJson::libro);
+    }
+
+    /**
+     * Cuerpo JSON de la petición; null si ya se respondió (demasiado grande o conexión rota)
+     */
+    private Map<String, String> leerCuerpo(HttpExchange intercambio) {
+        byte[] cuerpo;
+        try {
+            cuerpo = intercambio.getRequestBody().readNBytes(MAX_CUERPO + 1);
+        } catch (IOException e) {
+            LOG.debug(() -> intercambio.getRequestMethod() + " " + intercambio.getRequestURI()
+                    + ": error leyendo el cuerpo: " + e.getMessage());
+            intercambio.close();
+            return null;
+        }
+        if (cuerpo.length > MAX_CUERPO) {
+            enviarError(intercambio, 413, "El cuerpo supera " + MAX_CUERPO + " bytes");
+            return null;
+        }
+        return LectorJson.leerObjeto(new String(cuerpo, StandardCharsets.UTF_8));
+    }
+
+    // ========================================================================
+    // RESPUESTAS
+    // ========================================================================
+
+    /**
+     * Escribir la respuesta cuando se complete el futuro (éxito o error)
+     */
+    private <T> void responder(HttpExchange intercambio, CompletableFuture<T> futuro, int codigo, CuerpoJson<T> cuerpo) {
+        futuro.whenComplete((valor, error) -> {
+            if (error != null) {
+                responderError(intercambio, error);
+            } else {
+                enviarJson(intercambio, codigo, json -> cuerpo.escribir(json, valor));
+            }
+        });
+    }
+
+    /**
+     * Mismo mapeo de errores que LibroController: 400, 404, 409, 503 o 500
+     */
+    private void responderError(HttpExchange intercambio, Throwable error) {
+        Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        int codigo = LibroControllerAsync.codigoHttp(causa);
+
+        switch (codigo) {
+            case 400 -> enviarError(intercambio, 400, "Datos inválidos: " + causa.getMessage());
+            case 404 -> enviarError(intercambio, 404, "Libro no encontrado");
+            case 409 -> enviarError(intercambio, 409, causa.getMessage());
+            case 503 -> {
+                intercambio.getResponseHeaders().set("Retry-After", "1");
+                enviarError(intercambio, 503, causa.getMessage());
+            }
+            default -> {
+                LOG.error(() -> intercambio.getRequestMethod() + " " + intercambio.getRequestURI() + " falló", causa);
+                enviarError(intercambio, 500, "Error interno del servidor");
+            }
+        }
+    }
+
+    /**
+     * Resultado que no se encontró: el estado ya dice el código, sin excepción de por medio
+     */
+    private void responderResultado(HttpExchange intercambio, Resultado<?> resultado) {
+        switch (resultado.getEstado()) {
+            case INVALIDO -> enviarError(intercambio, 400, "Datos inválidos: " + resultado.getMensaje());
+            case NO_ENCONTRADO -> enviarError(intercambio, 404, "Libro no encontrado");
+            case CONFLICTO -> enviarError(intercambio, 409, resultado.getMensaje());
+            default -> responderError(intercambio, resultado.getCausa());
+        }
+    }
+
+    private void metodoNoPermitido(HttpExchange intercambio, String permitidos) {
+        intercambio.getResponseHeaders().set("Allow", permitidos);
+        enviarError(intercambio, 405, "Método no permitido");
+    }
+
+    private void enviarError(HttpExchange intercambio, int codigo, String mensaje) {
+        enviarJson(intercambio, codigo, json -> json.inicioObjeto()
+                .nombre("codigo").valor(codigo)
+                .nombre("error").valor(mensaje)
+                .finObjeto());
+    }
+
+    /**
+     * Respuesta pequeña: se codifica completa para enviarla con Content-Length
+     */
+    private void enviarJson(HttpExchange intercambio, int codigo, EscrituraJson cuerpo) {
+        try (intercambio) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+            try (Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8)) {
+                cuerpo.escribir(new EscritorJson(writer));
+            }
+            intercambio.getResponseHeaders().set("Content-Type", TIPO_JSON);
+            intercambio.sendResponseHeaders(codigo, buffer.size());
+            buffer.writeTo(intercambio.getResponseBody());
+        } catch (IOException e) {
+            // El cliente cerró la conexión: no hay a quién responder
+            LOG.debug(() -> "Respuesta " + codigo + " no enviada: " + e.getMessage());
+        }
+    }
+
+    private static void escribirPagina(EscritorJson json, Pagina<LibroDTO> pagina) throws IOException {
+        json.inicioObjeto().nombre("elementos").inicioArreglo();
+        for (LibroDTO libro : pagina.getElementos()) {
+            json.libro(libro);
+        }
+        json.finArreglo()
+                .nombre("tokenSiguiente").valor(pagina.getTokenSiguiente())
+                .finObjeto();
+    }
+
+    private static void escribirAnos(EscritorJson json, List<ConteoAno> anos) throws IOException {
+        json.inicioArreglo();
+        for (ConteoAno ano : anos) {
+            json.inicioObjeto()
+                    .nombre("ano").valor(ano.ano())
+                    .nombre("libros").valor(ano.libros())
+                    .nombre("disponibles").valor(ano.disponibles())
+                    .finObjeto();
+        }
+        json.finArreglo();
+    }
+
+    private static Long numero(String texto, String error) {
+        try {
+            return Long.valueOf(texto.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(error);
+        }
+    }
+
+    private static int entero(Map<String, String> parametros, String nombre, int defecto, String error) {
+        String valor = parametros.get(nombre);
+        if (valor == null) {
+            return defecto;
+        }
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(error);
+        }
+    }
+
+    /**
+     * Parámetros de la query string, decodificados
+     */
+    private static Map<String, String> parametros(HttpExchange intercambio) {
+        String query = intercambio.getRequestURI().getRawQuery();
+        Map<String, String> parametros = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return parametros;
+        }
+        for (String par : query.split("&")) {
+            if (par.isEmpty()) {
+                continue;
+            }
+            int igual = par.indexOf('=');
+            String nombre = igual < 0 ? par : par.substring(0, igual);
+            String valor = igual < 0 ? "" : par.substring(igual + 1);
+            parametros.put(URLDecoder.decode(nombre, StandardCharsets.UTF_8),
+                    URLDecoder.decode(valor, StandardCharsets.UTF_8));
+        }
+        return parametros;
+    }
+
+    /**
+     * Arreglo JSON enviado en chunked a medida que llegan los libros
+     * Las cabeceras se envían con el primer libro: si la consulta falla antes,
+     * todavía se puede responder con un error normal.
+     */
+    private final class RespuestaStreaming {
+        private final HttpExchange intercambio;
+        private Writer writer;
+        private EscritorJson json;
+
+        RespuestaStreaming(HttpExchange intercambio) {
+            this.intercambio = intercambio;
+        }
+
+        void escribir(LibroDTO libro) {
+            try {
+                if (json == null) {
+                    abrir();
+                }
+                json.libro(libro);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void terminar(Throwable error) {
+            if (json == null && error == null) {
+                enviarJson(intercambio, 200, vacio -> vacio.inicioArreglo().finArreglo());
+                return;
+            }
+            if (json == null) {
+                responderError(intercambio, error);
+                return;
+            }
+            if (error != null) {
+                interrumpir(error);
+                return;
+            }
+            try (intercambio) {
+                json.finArreglo();
+                writer.close();
+            } catch (IOException e) {
+                LOG.debug(() -> "GET /libros no completado: " + e.getMessage());
+            }
+        }
+
+        /**
+         * Fallo con el 200 ya enviado: HttpServer no deja cortar la conexión fuera del hilo del
+         * handler y cerrar el intercambio escribe el último chunk. Antes se envía un objeto de error
+         * como último elemento, sin cerrar el arreglo: el cuerpo no es JSON válido y dice por qué.
+         */
+        private void interrumpir(Throwable error) {
+            LOG.warn(() -> "GET /libros interrumpido a mitad de la respuesta", error);
+            try (intercambio) {
+                json.inicioObjeto()
+                        .nombre("codigo").valor(500)
+                        .nombre("error").valor("Respuesta interrumpida")
+                        .finObjeto();
+                writer.flush();
+            } catch (IOException e) {
+                LOG.debug(() -> "GET /libros: no se pudo marcar la interrupción: " + e.getMessage());
+            }
+        }
+
+        private void abrir() throws IOException {
+            intercambio.getResponseHeaders().set("Content-Type", TIPO_JSON);
+            intercambio.sendResponseHeaders(200, 0);
+            writer = new BufferedWriter(new OutputStreamWriter(intercambio.getResponseBody(), StandardCharsets.UTF_8), 8192);
+            json = new EscritorJson(writer);
+            json.inicioArreglo();
+        }
+    }
+}
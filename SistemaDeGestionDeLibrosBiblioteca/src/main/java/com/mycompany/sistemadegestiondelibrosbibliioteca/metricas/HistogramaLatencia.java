@@ -0,0 +1,95 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.metricas;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HistogramaLatencia - Histograma log-lineal de latencias en nanosegundos (estilo HDR)
+ * 32 sub-cubetas por potencia de dos: error relativo por debajo del 3,2 %.
+ * Registrar es un incremento atómico sin bloqueos ni asignaciones.
+ */
+public class HistogramaLatencia {
+
+    private static final int BITS_SUB = 5;
+    private static final int SUB = 1 << BITS_SUB;
+    // Hasta 2^42 ns (~73 minutos); lo que supere eso cae en la última cubeta
+    private static final int CUBETAS = (42 - BITS_SUB + 1) * SUB + SUB;
+
+    private final AtomicLongArray conteos = new AtomicLongArray(CUBETAS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder suma = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+
+    public void registrar(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        conteos.incrementAndGet(indice(nanos));
+        total.increment();
+        suma.add(nanos);
+        if (nanos > maximo.get()) {
+            maximo.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    public double getMedia() {
+        long n = total.sum();
+        return n == 0 ? 0.0 : (double) suma.sum() / n;
+    }
+
+    /**
+     * Valor (ns) por debajo del cual queda la fracción 'percentil' (0..1) de las muestras
+     */
+    public long percentil(double percentil) {
+        long[] copia = new long[CUBETAS];
+        long n = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            copia[i] = conteos.get(i);
+            n += copia[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+
+        long objetivo = Math.max(1, (long) Math.ceil(percentil * n));
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+
+    // ========================================================================
+    // MÉTODOS AUXILIARES
+    // ========================================================================
+
+    private static int indice(long valor) {
+        if (valor < SUB) {
+            return (int) valor;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(valor) - BITS_SUB;
+        int sub = (int) (valor >>> exponente);
+        return Math.min(exponente * SUB + sub, CUBETAS - 1);
+    }
+
+    private static long limiteSuperior(int indice) {
+        if (indice < SUB) {
+            return indice;
+        }
+        int exponente = indice / SUB - 1;
+        long sub = indice - (long) exponente * SUB;
+        return ((sub + 1) << exponente) - 1;
+    }
+}
@@ -0,0 +1,10 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.metricas;
+
+/**
+ * InstantaneaOperacion - Valores de las métricas de una operación en un momento dado
+ * Latencias en microsegundos
+ */
+public record InstantaneaOperacion(String nombre, long total, long errores, double mediaMicros,
+                                   double p50Micros, double p99Micros, double p999Micros,
+                                   double maximoMicros) {
+}
@@ -0,0 +1,80 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.metricas;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MetricasOperacion - Conteo, errores y latencia de una operación
+ */
+public class MetricasOperacion implements MetricasOperacionMBean {
+
+    private final String nombre;
+    private final HistogramaLatencia latencia = new HistogramaLatencia();
+    private final LongAdder errores = new LongAdder();
+
+    public MetricasOperacion(String nombre) {
+        this.nombre = nombre;
+    }
+
+    /**
+     * Registrar una ejecución que empezó en 'inicioNanos' (System.nanoTime)
+     */
+    public void registrar(long inicioNanos, boolean error) {
+        latencia.registrar(System.nanoTime() - inicioNanos);
+        if (error) {
+            errores.increment();
+        }
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    @Override
+    public long getTotal() {
+        return latencia.getTotal();
+    }
+
+    @Override
+    public long getErrores() {
+        return errores.sum();
+    }
+
+    @Override
+    public double getTasaError() {
+        long total = getTotal();
+        return total == 0 ? 0.0 : (double) getErrores() / total;
+    }
+
+    @Override
+    public double getMediaMicros() {
+        return latencia.getMedia() / 1000.0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return latencia.percentil(0.50) / 1000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latencia.percentil(0.99) / 1000.0;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return latencia.percentil(0.999) / 1000.0;
+    }
+
+    @Override
+    public double getMaximoMicros() {
+        return latencia.getMaximo() / 1000.0;
+    }
+
+    /**
+     * Copia inmutable de los valores actuales
+     */
+    public InstantaneaOperacion instantanea() {
+        return new InstantaneaOperacion(nombre, getTotal(), getErrores(), getMediaMicros(),
+                getP50Micros(), getP99Micros(), getP999Micros(), getMaximoMicros());
+    }
+}
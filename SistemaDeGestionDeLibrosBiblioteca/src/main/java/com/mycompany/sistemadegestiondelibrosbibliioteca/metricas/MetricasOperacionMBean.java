@@ -0,0 +1,22 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.metricas;
+
+// MetricasOperacionMBean - Vista JMX de las métricas de una operación
+// Se publica como com.mycompany.biblioteca:type=Operacion,name=<operación>
+public interface MetricasOperacionMBean {
+
+    long getTotal();
+
+    long getErrores();
+
+    double getTasaError();
+
+    double getMediaMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaximoMicros();
+}
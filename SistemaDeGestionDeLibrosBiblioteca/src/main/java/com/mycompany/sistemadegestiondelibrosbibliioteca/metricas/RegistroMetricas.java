@@ -0,0 +1,72 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.metricas;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.util.Log;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * RegistroMetricas - Registro global de métricas por operación
+ * Cada operación se crea una vez y se publica también como MBean
+ */
+public final class RegistroMetricas {
+
+    private static final Log LOG = Log.de(RegistroMetricas.class);
+    private static final String DOMINIO_JMX = "com.mycompany.biblioteca";
+
+    private static final ConcurrentMap<String, MetricasOperacion> OPERACIONES = new ConcurrentHashMap<>();
+
+    private RegistroMetricas() {
+    }
+
+    /**
+     * Obtener (o crear y publicar) las métricas de una operación
+     */
+    public static MetricasOperacion operacion(String nombre) {
+        MetricasOperacion existente = OPERACIONES.get(nombre);
+        if (existente != null) {
+            return existente;
+        }
+        return OPERACIONES.computeIfAbsent(nombre, RegistroMetricas::crear);
+    }
+
+    /**
+     * Instantánea de todas las operaciones, ordenada por nombre
+     */
+    public static List<InstantaneaOperacion> instantanea() {
+        List<InstantaneaOperacion> resultado = new ArrayList<>();
+        for (MetricasOperacion operacion : OPERACIONES.values()) {
+            resultado.add(operacion.instantanea());
+        }
+        resultado.sort((a, b) -> a.nombre().compareTo(b.nombre()));
+        return resultado;
+    }
+
+    /**
+     * Publicar por JMX un MBean propio (p. ej. indicadores de una cola)
+     * Si ya había uno con el mismo nombre se reemplaza
+     */
+    public static void publicar(String tipo, String nombre, Object mbean) {
+        try {
+            ObjectName objectName = new ObjectName(DOMINIO_JMX + ":type=" + tipo + ",name=" + ObjectName.quote(nombre));
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            if (servidor.isRegistered(objectName)) {
+                servidor.unregisterMBean(objectName);
+            }
+            servidor.registerMBean(mbean, objectName);
+        } catch (JMException e) {
+            LOG.warn(() -> "No se pudo publicar " + tipo + " " + nombre + " por JMX: " + e.getMessage());
+        }
+    }
+
+    private static MetricasOperacion crear(String nombre) {
+        MetricasOperacion operacion = new MetricasOperacion(nombre);
+        publicar("Operacion", nombre, operacion);
+        return operacion;
+    }
+}
@@ -0,0 +1,557 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ConteoAno;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ConteoAutor;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ResumenDisponibilidad;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.entity.Libro;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.util.NormalizadorTexto;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * CatalogoColumnar - Instantánea en memoria de libros por columnas para consultas analíticas
+ * Una posición por libro, ordenadas por ID: long[] de IDs, int[] de años, int[] de códigos de
+ * autor (diccionario sin distinguir mayúsculas, como COLLATE NOCASE) y un BitSet de disponibles.
+ * Sin títulos ni objetos por fila: unos 16 bytes por libro.
+ *
+ * Los filtros recorren los arreglos primitivos en una pasada sin saltos y dejan el resultado en
+ * un BitSet, que se cruza con el de disponibles y se cuenta de 64 en 64 filas. Un borrado deja un hueco (código de autor 0) que se
+ * compacta cuando los huecos pasan de la cuarta parte.
+ */
+public class CatalogoColumnar implements CatalogoColumnarMBean {
+
+    private static final int CAPACIDAD_INICIAL = 1024;
+
+    // Código de autor de una posición borrada; los autores reales empiezan en 1
+    private static final int HUECO = 0;
+
+    // Año de una posición borrada: queda fuera de cualquier rango
+    private static final int SIN_ANO = Integer.MIN_VALUE;
+
+    // Huecos a partir de los que compensa compactar (además de superar la cuarta parte)
+    private static final int HUECOS_MINIMOS = 1024;
+
+    private final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+
+    private long[] ids = new long[CAPACIDAD_INICIAL];
+    private int[] anos = new int[CAPACIDAD_INICIAL];
+    private int[] autores = new int[CAPACIDAD_INICIAL];
+    private BitSet disponibles = new BitSet();
+
+    // Posiciones usadas (incluidos los huecos) y cuántas de ellas son huecos
+    private int filas;
+    private int huecos;
+
+    // Extremos de los años vistos: acotan el histograma por año
+    private int anoMinimo = Integer.MAX_VALUE;
+    private int anoMaximo = Integer.MIN_VALUE;
+
+    // Diccionario de autores: clave NOCASE -> código; nombres y claves indexados por código
+    private final Map<String, Integer> codigos = new HashMap<>();
+    private String[] nombres = new String[64];
+    private String[] claves = new String[64];
+    private int numAutores;
+    private long caracteresAutores;
+
+    private long compactaciones;
+
+    // ========================================================================
+    // CARGA Y CAMBIOS (los aplica LibroDAOColumnar después de escribir en la BD)
+    // ========================================================================
+
+    /**
+     * Sustituir el contenido por los libros del recorrido (en orden de ID, como streamAll)
+     */
+    void cargar(Iterator<Libro> libros) {
+        cerrojo.writeLock().lock();
+        try {
+            ids = new long[CAPACIDAD_INICIAL];
+            anos = new int[CAPACIDAD_INICIAL];
+            autores = new int[CAPACIDAD_INICIAL];
+            disponibles = new BitSet();
+            filas = 0;
+            huecos = 0;
+            anoMinimo = Integer.MAX_VALUE;
+            anoMaximo = Integer.MIN_VALUE;
+            codigos.clear();
+            nombres = new String[64];
+            claves = new String[64];
+            numAutores = 0;
+            caracteresAutores = 0;
+
+            while (libros.hasNext()) {
+                agregarSinCerrojo(libros.next());
+            }
+            compactarSiHaceFalta();
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Libro nuevo (o que vuelve a existir con el mismo ID)
+     */
+    void agregar(Libro libro) {
+        cerrojo.writeLock().lock();
+        try {
+            agregarSinCerrojo(libro);
+            compactarSiHaceFalta();
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Nuevos autor, año y disponibilidad de un libro; si no estaba se agrega
+     */
+    void actualizar(Libro libro) {
+        agregar(libro);
+    }
+
+    void quitar(Long id) {
+        cerrojo.writeLock().lock();
+        try {
+            int posicion = posicion(id);
+            if (posicion >= 0) {
+                quitarPosicion(posicion);
+                compactarSiHaceFalta();
+            }
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quitar los libros del filtro; devuelve cuántos había
+     */
+    int quitar(FiltroLibros filtro) {
+        cerrojo.writeLock().lock();
+        try {
+            BitSet mascara = mascara(filtro);
+            int quitados = 0;
+            for (int i = mascara.nextSetBit(0); i >= 0; i = mascara.nextSetBit(i + 1)) {
+                quitarPosicion(i);
+                quitados++;
+            }
+            compactarSiHaceFalta();
+            return quitados;
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marcar como disponibles o prestados los libros del filtro
+     */
+    void cambiarDisponible(FiltroLibros filtro, boolean disponible) {
+        cerrojo.writeLock().lock();
+        try {
+            BitSet mascara = mascara(filtro);
+            if (disponible) {
+                disponibles.or(mascara);
+            } else {
+                disponibles.andNot(mascara);
+            }
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    // ========================================================================
+    // CONSULTAS
+    // ========================================================================
+
+    /**
+     * Total de libros y cuántos están disponibles
+     */
+    public ResumenDisponibilidad contarDisponibilidad() {
+        cerrojo.readLock().lock();
+        try {
+            return new ResumenDisponibilidad(filas - huecos, disponibles.cardinality());
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Total y disponibles de los libros que cumplen el filtro
+     */
+    public ResumenDisponibilidad contar(FiltroLibros filtro) {
+        cerrojo.readLock().lock();
+        try {
+            BitSet mascara = mascara(filtro);
+            long total = mascara.cardinality();
+            mascara.and(disponibles);
+            return new ResumenDisponibilidad(total, mascara.cardinality());
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Autores con más libros, de mayor a menor (empates por nombre, como ORDER BY autor)
+     */
+    public List<ConteoAutor> contarPorAutor(int limite) {
+        if (limite <= 0) {
+            throw new IllegalArgumentException("El límite debe ser positivo");
+        }
+
+        cerrojo.readLock().lock();
+        try {
+            // Un contador por código: los huecos suman en el 0, que no se lista
+            int[] libros = new int[numAutores + 1];
+            int[] disponiblesPorAutor = new int[numAutores + 1];
+            long[] bits = palabras(disponibles);
+            for (int i = 0; i < filas; i++) {
+                int codigo = autores[i];
+                libros[codigo]++;
+                disponiblesPorAutor[codigo] += (int) (bits[i >>> 6] >>> i) & 1;
+            }
+
+            // Montículo de los K mejores: la cima es el peor de los elegidos
+            PriorityQueue<Integer> mejores = new PriorityQueue<>(Math.min(limite, numAutores) + 1,
+                    (a, b) -> libros[a] != libros[b] ? Integer.compare(libros[a], libros[b]) : claves[b].compareTo(claves[a]));
+            for (int codigo = 1; codigo <= numAutores; codigo++) {
+                if (libros[codigo] == 0) {
+                    continue;
+                }
+                mejores.add(codigo);
+                if (mejores.size() > limite) {
+                    mejores.poll();
+                }
+            }
+
+            ConteoAutor[] resultado = new ConteoAutor[mejores.size()];
+            for (int i = resultado.length - 1; i >= 0; i--) {
+                int codigo = mejores.poll();
+                resultado[i] = new ConteoAutor(nombres[codigo], libros[codigo], disponiblesPorAutor[codigo]);
+            }
+            return Arrays.asList(resultado);
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Histograma por año de publicación entre desde y hasta (incluidos), solo años con libros
+     */
+    public List<ConteoAno> contarPorAno(int desde, int hasta) {
+        if (desde > hasta) {
+            throw new IllegalArgumentException("El año inicial no puede ser mayor que el final");
+        }
+
+        cerrojo.readLock().lock();
+        try {
+            int minimo = Math.max(desde, anoMinimo);
+            int maximo = Math.min(hasta, anoMaximo);
+            List<ConteoAno> resultado = new ArrayList<>();
+            if (minimo > maximo) {
+                return resultado;
+            }
+
+            int[] libros = new int[maximo - minimo + 1];
+            int[] disponiblesPorAno = new int[libros.length];
+            long[] bits = palabras(disponibles);
+            for (int i = 0; i < filas; i++) {
+                int ano = anos[i];
+                if (ano >= minimo && ano <= maximo) {
+                    libros[ano - minimo]++;
+                    disponiblesPorAno[ano - minimo] += (int) (bits[i >>> 6] >>> i) & 1;
+                }
+            }
+
+            for (int i = 0; i < libros.length; i++) {
+                if (libros[i] > 0) {
+                    resultado.add(new ConteoAno(minimo + i, libros[i], disponiblesPorAno[i]));
+                }
+            }
+            return resultado;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    // ========================================================================
+    // JMX
+    // ========================================================================
+
+    @Override
+    public int getLibros() {
+        cerrojo.readLock().lock();
+        try {
+            return filas - huecos;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int getAutores() {
+        cerrojo.readLock().lock();
+        try {
+            return numAutores;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int getHuecos() {
+        cerrojo.readLock().lock();
+        try {
+            return huecos;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long getCompactaciones() {
+        cerrojo.readLock().lock();
+        try {
+            return compactaciones;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long getBytesEstimados() {
+        cerrojo.readLock().lock();
+        try {
+            // Columnas a su capacidad (8 + 4 + 4 bytes), el BitSet y, por autor, dos String
+            // (nombre y clave: 40 bytes + 1 por carácter cada uno) más la entrada del HashMap (48)
+            return (long) ids.length * 16 + (long) ids.length / 8
+                    + (long) numAutores * (40 * 2 + 48) + caracteresAutores * 2;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    // ========================================================================
+    // MÉTODOS AUXILIARES (con el cerrojo ya tomado)
+    // ========================================================================
+
+    private void agregarSinCerrojo(Libro libro) {
+        if (libro.getId() == null) {
+            return;
+        }
+        long id = libro.getId();
+
+        int posicion;
+        if (filas == 0 || id > ids[filas - 1]) {
+            posicion = filas++;
+            if (posicion == ids.length) {
+                crecer();
+            }
+            ids[posicion] = id;
+        } else {
+            posicion = Arrays.binarySearch(ids, 0, filas, id);
+            if (posicion < 0) {
+                // IDs fuera de orden (no ocurre con AUTOINCREMENT): abrir el hueco en su sitio
+                posicion = insertarEn(-posicion - 1, id);
+            } else if (autores[posicion] == HUECO) {
+                huecos--;
+            }
+        }
+
+        int ano = libro.getAnoPublicacion();
+        anos[posicion] = ano;
+        anoMinimo = Math.min(anoMinimo, ano);
+        anoMaximo = Math.max(anoMaximo, ano);
+        autores[posicion] = codigoAutor(libro.getAutor());
+        disponibles.set(posicion, !Boolean.FALSE.equals(libro.getDisponible()));
+    }
+
+    private void quitarPosicion(int posicion) {
+        autores[posicion] = HUECO;
+        anos[posicion] = SIN_ANO;
+        disponibles.clear(posicion);
+        huecos++;
+    }
+
+    /**
+     * Posición del libro o -1 si no está
+     */
+    private int posicion(Long id) {
+        if (id == null) {
+            return -1;
+        }
+        int posicion = Arrays.binarySearch(ids, 0, filas, id);
+        return posicion >= 0 && autores[posicion] != HUECO ? posicion : -1;
+    }
+
+    /**
+     * Posiciones de los libros que cumplen el filtro
+     * Sin IDs es una sola pasada por las columnas: un bit por fila sin saltos, 64 filas por palabra.
+     * Los huecos no coinciden nunca: su año (SIN_ANO) queda fuera de cualquier rango.
+     */
+    private BitSet mascara(FiltroLibros filtro) {
+        if (filtro.esVacio()) {
+            return new BitSet();
+        }
+
+        int codigo = -1;
+        if (filtro.getAutor() != null) {
+            Integer encontrado = codigos.get(clave(NormalizadorTexto.sanitizar(filtro.getAutor())));
+            if (encontrado == null) {
+                return new BitSet();
+            }
+            codigo = encontrado;
+        }
+        int desde = filtro.getAnoDesde() != null ? Math.max(filtro.getAnoDesde(), SIN_ANO + 1) : SIN_ANO + 1;
+        int hasta = filtro.getAnoHasta() != null ? filtro.getAnoHasta() : Integer.MAX_VALUE;
+
+        if (filtro.getIds() != null) {
+            BitSet mascara = new BitSet(filas);
+            for (Long id : filtro.getIds()) {
+                int i = posicion(id);
+                if (i >= 0 && (codigo < 0 || autores[i] == codigo) && anos[i] >= desde && anos[i] <= hasta) {
+                    mascara.set(i);
+                }
+            }
+            return mascara;
+        }
+
+        long[] palabras = new long[(filas + 63) >>> 6];
+        for (int p = 0; p < palabras.length; p++) {
+            int inicio = p << 6;
+            int fin = Math.min(inicio + 64, filas);
+            long palabra = 0;
+            for (int i = inicio; i < fin; i++) {
+                int ano = anos[i];
+                boolean coincide = (codigo < 0 | autores[i] == codigo) & ano >= desde & ano <= hasta;
+                palabra |= (coincide ? 1L : 0L) << i;
+            }
+            palabras[p] = palabra;
+        }
+        return BitSet.valueOf(palabras);
+    }
+
+    /**
+     * Palabras del BitSet con una por cada 64 filas (toLongArray recorta las finales a cero)
+     */
+    private long[] palabras(BitSet bits) {
+        long[] palabras = bits.toLongArray();
+        int necesarias = (filas + 63) >>> 6;
+        return palabras.length >= necesarias ? palabras : Arrays.copyOf(palabras, necesarias);
+    }
+
+    /**
+     * Código del autor en el diccionario, dándolo de alta si es nuevo
+     */
+    private int codigoAutor(String autor) {
+        String clave = clave(autor);
+        Integer codigo = codigos.get(clave);
+        if (codigo != null) {
+            return codigo;
+        }
+
+        int nuevo = ++numAutores;
+        if (nuevo == nombres.length) {
+            nombres = Arrays.copyOf(nombres, nombres.length * 2);
+            claves = Arrays.copyOf(claves, claves.length * 2);
+        }
+        nombres[nuevo] = autor;
+        claves[nuevo] = clave;
+        codigos.put(clave, nuevo);
+        caracteresAutores += autor.length();
+        return nuevo;
+    }
+
+    /**
+     * Clave equivalente a COLLATE NOCASE de SQLite (minúsculas solo ASCII)
+     */
+    private static String clave(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                char[] chars = texto.toCharArray();
+                for (int j = i; j < chars.length; j++) {
+                    if (chars[j] >= 'A' && chars[j] <= 'Z') {
+                        chars[j] = (char) (chars[j] + ('a' - 'A'));
+                    }
+                }
+                return new String(chars);
+            }
+        }
+        return texto;
+    }
+
+    private void crecer() {
+        int capacidad = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacidad);
+        anos = Arrays.copyOf(anos, capacidad);
+        autores = Arrays.copyOf(autores, capacidad);
+    }
+
+    /**
+     * Abrir una posición en medio desplazando el resto; devuelve la posición
+     */
+    private int insertarEn(int posicion, long id) {
+        if (filas == ids.length) {
+            crecer();
+        }
+        int desplazar = filas - posicion;
+        System.arraycopy(ids, posicion, ids, posicion + 1, desplazar);
+        System.arraycopy(anos, posicion, anos, posicion + 1, desplazar);
+        System.arraycopy(autores, posicion, autores, posicion + 1, desplazar);
+        disponibles = desplazar(disponibles, posicion);
+        filas++;
+        ids[posicion] = id;
+        return posicion;
+    }
+
+    private static BitSet desplazar(BitSet bits, int desde) {
+        BitSet resultado = bits.get(0, desde);
+        for (int i = bits.nextSetBit(desde); i >= 0; i = bits.nextSetBit(i + 1)) {
+            resultado.set(i + 1);
+        }
+        return resultado;
+    }
+
+    /**
+     * Eliminar los huecos si ya son muchos: las columnas vuelven a ser contiguas
+     */
+    private void compactarSiHaceFalta() {
+        if (huecos < HUECOS_MINIMOS || huecos * 4 < filas) {
+            return;
+        }
+
+        int vivas = filas - huecos;
+        int capacidad = Math.max(CAPACIDAD_INICIAL, vivas + (vivas >> 1));
+        long[] nuevosIds = new long[capacidad];
+        int[] nuevosAnos = new int[capacidad];
+        int[] nuevosAutores = new int[capacidad];
+        BitSet nuevosDisponibles = new BitSet(capacidad);
+
+        int destino = 0;
+        for (int i = 0; i < filas; i++) {
+            if (autores[i] == HUECO) {
+                continue;
+            }
+            nuevosIds[destino] = ids[i];
+            nuevosAnos[destino] = anos[i];
+            nuevosAutores[destino] = autores[i];
+            if (disponibles.get(i)) {
+                nuevosDisponibles.set(destino);
+            }
+            destino++;
+        }
+
+        ids = nuevosIds;
+        anos = nuevosAnos;
+        autores = nuevosAutores;
+        disponibles = nuevosDisponibles;
+        filas = vivas;
+        huecos = 0;
+        compactaciones++;
+    }
+}
@@ -0,0 +1,20 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao;
+
+// CatalogoColumnarMBean - Vista JMX de la instantánea columnar
+// Se publica como com.mycompany.biblioteca:type=Columnar,name=libros
+public interface CatalogoColumnarMBean {
+
+    // Libros en la instantánea
+    int getLibros();
+
+    // Autores distintos en el diccionario (incluye los que ya no tienen libros)
+    int getAutores();
+
+    // Posiciones borradas pendientes de compactar
+    int getHuecos();
+
+    long getCompactaciones();
+
+    // Memoria aproximada ocupada por columnas y diccionario
+    long getBytesEstimados();
+}
@@ -0,0 +1,35 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao;
+
+/**
+ * ConflictoVersionException - Otro escritor modificó el libro después de que se leyera
+ * Equivale a HTTP 409 Conflict: el cliente debe releer el libro y reintentar su cambio
+ */
+public class ConflictoVersionException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long id;
+    private final long versionEsperada;
+    private final long versionActual;
+
+    public ConflictoVersionException(long id, long versionEsperada, long versionActual) {
+        // Sin traza: es un resultado esperado con escrituras concurrentes, no un fallo
+        super("El libro " + id + " cambió: versión esperada " + versionEsperada + ", actual " + versionActual,
+                null, false, false);
+        this.id = id;
+        this.versionEsperada = versionEsperada;
+        this.versionActual = versionActual;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getVersionEsperada() {
+        return versionEsperada;
+    }
+
+    public long getVersionActual() {
+        return versionActual;
+    }
+}
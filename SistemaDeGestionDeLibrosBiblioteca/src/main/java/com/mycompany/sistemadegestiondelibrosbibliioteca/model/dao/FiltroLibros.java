@@ -0,0 +1,116 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * FiltroLibros - Predicado de las operaciones masivas del DAO
+ * Combina (con AND) una lista de IDs, un autor exacto (sin distinguir mayúsculas) y un
+ * rango de años. Es inmutable: cada con...() devuelve un filtro nuevo.
+ */
+public final class FiltroLibros {
+
+    private final List<Long> ids;
+    private final String autor;
+    private final Integer anoDesde;
+    private final Integer anoHasta;
+
+    private FiltroLibros(List<Long> ids, String autor, Integer anoDesde, Integer anoHasta) {
+        this.ids = ids;
+        this.autor = autor;
+        this.anoDesde = anoDesde;
+        this.anoHasta = anoHasta;
+    }
+
+    /**
+     * Libros con esos IDs (sin repetidos ni nulos)
+     * Se guardan ordenados: los trozos recorren la PK en orden y readAll sale ordenado por ID
+     */
+    public static FiltroLibros porIds(Collection<Long> ids) {
+        return new FiltroLibros(null, null, null, null).conIds(ids);
+    }
+
+    /**
+     * Libros de un autor
+     */
+    public static FiltroLibros porAutor(String autor) {
+        return new FiltroLibros(null, null, null, null).conAutor(autor);
+    }
+
+    /**
+     * Libros publicados entre desde y hasta (incluidos); null deja ese extremo abierto
+     */
+    public static FiltroLibros porAnos(Integer desde, Integer hasta) {
+        return new FiltroLibros(null, null, null, null).conAnos(desde, hasta);
+    }
+
+    public FiltroLibros conIds(Collection<Long> ids) {
+        if (ids == null) {
+            throw new IllegalArgumentException("La lista de IDs no puede ser nula");
+        }
+        Set<Long> unicos = new TreeSet<>();
+        for (Long id : ids) {
+            if (id != null && id > 0) {
+                unicos.add(id);
+            }
+        }
+        return new FiltroLibros(Collections.unmodifiableList(new ArrayList<>(unicos)), autor, anoDesde, anoHasta);
+    }
+
+    public FiltroLibros conAutor(String autor) {
+        if (autor == null || autor.trim().isEmpty()) {
+            throw new IllegalArgumentException("El autor del filtro no puede estar vacío");
+        }
+        return new FiltroLibros(ids, autor.trim(), anoDesde, anoHasta);
+    }
+
+    public FiltroLibros conAnos(Integer desde, Integer hasta) {
+        if (desde == null && hasta == null) {
+            throw new IllegalArgumentException("El rango de años necesita al menos un extremo");
+        }
+        if (desde != null && hasta != null && desde > hasta) {
+            throw new IllegalArgumentException("El año inicial no puede ser mayor que el final");
+        }
+        return new FiltroLibros(ids, autor, desde, hasta);
+    }
+
+    // IDs del filtro, null si no filtra por ID
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public String getAutor() {
+        return autor;
+    }
+
+    public Integer getAnoDesde() {
+        return anoDesde;
+    }
+
+    public Integer getAnoHasta() {
+        return anoHasta;
+    }
+
+    // Verdadero si solo filtra por ID: quien cachea por ID puede invalidar solo esas entradas
+    public boolean soloIds() {
+        return ids != null && autor == null && anoDesde == null && anoHasta == null;
+    }
+
+    // Verdadero si no puede coincidir con ningún libro (lista de IDs vacía)
+    public boolean esVacio() {
+        return ids != null && ids.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "FiltroLibros{" +
+                (ids != null ? "ids=" + ids.size() + " " : "") +
+                (autor != null ? "autor='" + autor + "' " : "") +
+                (anoDesde != null || anoHasta != null ? "anos=" + anoDesde + ".." + anoHasta : "") +
+                '}';
+    }
+}
@@ -1,8 +1,17 @@
 package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao;
 
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ConteoAno;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ConteoAutor;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Pagina;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ResumenDisponibilidad;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Sugerencia;
 import com.mycompany.sistemadegestiondelibrosbibliioteca.model.entity.Libro;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 // ILibroDAO - Interfaz para el patrón DAO
 // Define las operaciones CRUD estándar
@@ -15,15 +24,86 @@ public interface ILibroDAO {
     // read - Buscar libro por ID
     Optional<Libro> read(Long id);
 
+    // find - Igual que read, con el desenlace tipado: NO_ENCONTRADO sin excepción, FALLO si la BD falla
+    // (read no sirve de base: un error de la BD ahí es un Optional vacío, indistinguible de "no existe")
+    Resultado<Libro> find(Long id);
+
     // update - Actualizar libro existente
     Libro update(Libro libro);
 
+    // update - Igual, pasando al consumidor el libro anterior (leído en la misma transacción) y el actualizado
+    Libro update(Libro libro, BiConsumer<Libro, Libro> cambio);
+
     // delete - Eliminar libro por ID
     boolean delete(Long id);
 
+    // delete - Eliminar libro por ID devolviendo cómo estaba (vacío si no existía)
+    Optional<Libro> deleteReturning(Long id);
+
+    // delete all - Eliminar en una sola transacción los libros que cumplen el filtro; devuelve cuántos
+    int deleteAll(FiltroLibros filtro);
+
+    // delete all - Igual, pasando cada libro eliminado al consumidor según se borra (sin acumularlos)
+    int deleteAll(FiltroLibros filtro, Consumer<Libro> eliminados);
+
+    // delete all - Eliminar muchos libros por ID en una sola transacción
+    default int deleteAll(Collection<Long> ids) {
+        return deleteAll(FiltroLibros.porIds(ids));
+    }
+
+    // set disponible - Marcar como disponibles o prestados los libros del filtro; devuelve cuántos cambiaron
+    int setDisponible(FiltroLibros filtro, boolean disponible);
+
+    // set disponible - Igual, por ID
+    default int setDisponible(Collection<Long> ids, boolean disponible) {
+        return setDisponible(FiltroLibros.porIds(ids), disponible);
+    }
+
     // read all - Obtener todos los libros
     List<Libro> readAll();
 
+    // read all - Todos los libros proyectados fila a fila (p. ej. directamente a DTO, sin entidad)
+    <T> List<T> readAll(ProyeccionLibro<T> proyeccion);
+
+    // read all - Libros que cumplen el filtro, ordenados por ID
+    List<Libro> readAll(FiltroLibros filtro);
+
+    // stream all - Recorrer todos los libros con el cursor abierto (cerrar el Stream al terminar)
+    Stream<Libro> streamAll();
+
+    // stream all - Igual, indicando el fetch size del cursor
+    Stream<Libro> streamAll(int fetchSize);
+
+    // stream all - Igual, proyectando cada fila
+    <T> Stream<T> streamAll(ProyeccionLibro<T> proyeccion);
+
+    // read page - Página de libros por keyset; token null para la primera página
+    Pagina<Libro> readPage(OrdenLibro orden, String token, int tamano);
+
+    // search - Búsqueda de texto completo en título y autor, por relevancia (prefijos de palabra)
+    List<Libro> search(String consulta, int limite);
+
+    // autocomplete - Títulos y autores que empiezan por el prefijo, los de más libros primero
+    List<Sugerencia> autocomplete(String prefijo, int limite);
+
+    // count by author - Autores con más libros (y cuántos disponibles), de mayor a menor
+    List<ConteoAutor> countByAuthor(int limite);
+
+    // count by year - Histograma por año de publicación entre desde y hasta (incluidos)
+    List<ConteoAno> countByYear(int desde, int hasta);
+
+    // count availability - Total de libros y cuántos están disponibles
+    ResumenDisponibilidad countAvailability();
+
+    // count availability - Igual, solo de los libros que cumplen el filtro
+    ResumenDisponibilidad countAvailability(FiltroLibros filtro);
+
     // exists - Verificar si existe libro con título y autor
     boolean exists(String titulo, String autor);
+
+    // create all - Insertar muchos libros en una sola transacción
+    ResultadoLote createAll(Collection<Libro> libros);
+
+    // create all - Igual, con tamaño de lote explícito para executeBatch
+    ResultadoLote createAll(Collection<Libro> libros, int tamanoLote);
 }
\ No newline at end of file
@@ -0,0 +1,399 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Sugerencia;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.util.NormalizadorTexto;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * IndiceAutocompletado - Trie radix en memoria para autocompletar un campo (título o autor)
+ * Las claves son los valores normalizados (NormalizadorTexto.claveBusqueda); cada arista
+ * guarda un tramo de caracteres, así una cadena sin ramificaciones ocupa un solo nodo.
+ *
+ * Cada nodo conoce el máximo de libros de su subárbol: las K mejores compleciones de un
+ * prefijo salen en orden con una búsqueda best-first que solo visita O(K) ramas.
+ * El tamaño está acotado por maxNodos; al alcanzarlo los valores nuevos se descartan.
+ */
+public class IndiceAutocompletado implements IndiceAutocompletadoMBean {
+
+    private static final Nodo[] SIN_HIJOS = new Nodo[0];
+
+    // Claves más largas se truncan: para teclear bastan los primeros caracteres
+    private static final int LONGITUD_MAXIMA_CLAVE = 64;
+
+    // Estimación por nodo con oops comprimidos: objeto (32) + char[] de la etiqueta (16)
+    // + arreglo de hijos (16) + referencia desde el padre (4)
+    private static final int BYTES_NODO = 68;
+    // String guardado como valor a mostrar: objeto (24) + byte[] (16), más 1 byte por carácter
+    private static final int BYTES_VALOR = 40;
+
+    private final Sugerencia.Campo campo;
+    private final int maxNodos;
+    private final Nodo raiz = new Nodo(new char[0]);
+    private final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+
+    private int nodos = 1;
+    private int valores = 0;
+    private long caracteresEtiquetas = 0;
+    private long caracteresValores = 0;
+    private long descartados = 0;
+
+    /**
+     * Nodo del trie: etiqueta de la arista que llega a él e hijos ordenados por su primer carácter
+     */
+    private static final class Nodo {
+        char[] etiqueta;
+        Nodo[] hijos = SIN_HIJOS;
+        // Libros con exactamente esta clave (0 = nodo intermedio) y su texto original
+        int cuenta;
+        String valor;
+        // Máximo de cuenta en todo el subárbol
+        int maximo;
+
+        Nodo(char[] etiqueta) {
+            this.etiqueta = etiqueta;
+        }
+    }
+
+    /**
+     * Rama o compleción pendiente en la búsqueda best-first
+     */
+    private record Candidato(Nodo nodo, boolean completo, int prioridad, int secuencia) {
+    }
+
+    public IndiceAutocompletado(Sugerencia.Campo campo, int maxNodos) {
+        if (maxNodos <= 0) {
+            throw new IllegalArgumentException("El máximo de nodos debe ser positivo");
+        }
+        this.campo = campo;
+        this.maxNodos = maxNodos;
+    }
+
+    /**
+     * Contar un libro más con este valor
+     *
+     * @return false si no cabe (maxNodos alcanzado) o el valor está vacío
+     */
+    public boolean agregar(String valor) {
+        String clave = clave(valor);
+        if (clave.isEmpty()) {
+            return false;
+        }
+
+        cerrojo.writeLock().lock();
+        try {
+            List<Nodo> camino = new ArrayList<>();
+            Nodo nodo = raiz;
+            camino.add(nodo);
+            int i = 0;
+
+            while (i < clave.length()) {
+                int pos = buscarHijo(nodo, clave.charAt(i));
+                if (pos < 0) {
+                    if (nodos + 1 > maxNodos) {
+                        descartados++;
+                        return false;
+                    }
+                    Nodo hoja = new Nodo(clave.substring(i).toCharArray());
+                    insertarHijo(nodo, -pos - 1, hoja);
+                    nodo = hoja;
+                    camino.add(nodo);
+                    break;
+                }
+
+                Nodo hijo = nodo.hijos[pos];
+                int comun = prefijoComun(hijo.etiqueta, clave, i);
+                if (comun < hijo.etiqueta.length) {
+                    // La clave se separa a mitad de arista: partirla (y quizá colgar una hoja después)
+                    int necesarios = i + comun == clave.length() ? 1 : 2;
+                    if (nodos + necesarios > maxNodos) {
+                        descartados++;
+                        return false;
+                    }
+                    hijo = partir(nodo, pos, comun);
+                }
+                nodo = hijo;
+                camino.add(nodo);
+                i += comun;
+            }
+
+            if (nodo.cuenta == 0) {
+                nodo.valor = valor;
+                valores++;
+                caracteresValores += valor.length();
+            }
+            nodo.cuenta++;
+            for (Nodo n : camino) {
+                n.maximo = Math.max(n.maximo, nodo.cuenta);
+            }
+            return true;
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Descontar un libro con este valor; el nodo desaparece al llegar a cero
+     *
+     * @return false si el valor no estaba indexado
+     */
+    public boolean quitar(String valor) {
+        String clave = clave(valor);
+        if (clave.isEmpty()) {
+            return false;
+        }
+
+        cerrojo.writeLock().lock();
+        try {
+            List<Nodo> camino = new ArrayList<>();
+            Nodo nodo = raiz;
+            camino.add(nodo);
+            int i = 0;
+
+            while (i < clave.length()) {
+                int pos = buscarHijo(nodo, clave.charAt(i));
+                if (pos < 0) {
+                    return false;
+                }
+                Nodo hijo = nodo.hijos[pos];
+                int comun = prefijoComun(hijo.etiqueta, clave, i);
+                if (comun < hijo.etiqueta.length) {
+                    return false;
+                }
+                nodo = hijo;
+                camino.add(nodo);
+                i += comun;
+            }
+            if (nodo.cuenta == 0) {
+                return false;
+            }
+
+            nodo.cuenta--;
+            if (nodo.cuenta == 0) {
+                caracteresValores -= nodo.valor.length();
+                nodo.valor = null;
+                valores--;
+            }
+
+            // De abajo arriba: podar hojas vacías, fusionar intermedios con un solo hijo y recalcular máximos
+            for (int k = camino.size() - 1; k > 0; k--) {
+                Nodo actual = camino.get(k);
+                Nodo padre = camino.get(k - 1);
+                if (actual.cuenta == 0 && actual.hijos.length == 0) {
+                    quitarHijo(padre, actual);
+                    continue;
+                }
+                if (actual.cuenta == 0 && actual.hijos.length == 1) {
+                    fusionarConHijo(actual);
+                }
+                recalcularMaximo(actual);
+            }
+            recalcularMaximo(raiz);
+            return true;
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Las K compleciones con más libros que empiezan por el prefijo
+     */
+    public List<Sugerencia> sugerir(String prefijo, int limite) {
+        List<Sugerencia> resultado = new ArrayList<>(Math.min(limite, 16));
+        String clave = clave(prefijo);
+
+        cerrojo.readLock().lock();
+        try {
+            // Bajar hasta el nodo cuyo subárbol contiene todas las claves con ese prefijo
+            Nodo nodo = raiz;
+            int i = 0;
+            while (i < clave.length()) {
+                int pos = buscarHijo(nodo, clave.charAt(i));
+                if (pos < 0) {
+                    return resultado;
+                }
+                Nodo hijo = nodo.hijos[pos];
+                int comun = prefijoComun(hijo.etiqueta, clave, i);
+                if (i + comun < clave.length() && comun < hijo.etiqueta.length) {
+                    return resultado;
+                }
+                nodo = hijo;
+                i += comun;
+            }
+
+            // Best-first por máximo del subárbol: cada compleción sale en orden de libros
+            PriorityQueue<Candidato> cola = new PriorityQueue<>((a, b) -> {
+                if (a.prioridad() != b.prioridad()) {
+                    return Integer.compare(b.prioridad(), a.prioridad());
+                }
+                if (a.completo() != b.completo()) {
+                    return a.completo() ? -1 : 1;
+                }
+                return Integer.compare(a.secuencia(), b.secuencia());
+            });
+            int secuencia = 0;
+            cola.add(new Candidato(nodo, false, nodo.maximo, secuencia++));
+
+            while (!cola.isEmpty() && resultado.size() < limite) {
+                Candidato candidato = cola.poll();
+                Nodo actual = candidato.nodo();
+                if (candidato.completo()) {
+                    resultado.add(new Sugerencia(actual.valor, campo, actual.cuenta));
+                    continue;
+                }
+                if (actual.cuenta > 0) {
+                    cola.add(new Candidato(actual, true, actual.cuenta, secuencia++));
+                }
+                for (Nodo hijo : actual.hijos) {
+                    cola.add(new Candidato(hijo, false, hijo.maximo, secuencia++));
+                }
+            }
+            return resultado;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int getValores() {
+        cerrojo.readLock().lock();
+        try {
+            return valores;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int getNodos() {
+        cerrojo.readLock().lock();
+        try {
+            return nodos;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int getMaxNodos() {
+        return maxNodos;
+    }
+
+    @Override
+    public long getBytesEstimados() {
+        cerrojo.readLock().lock();
+        try {
+            return (long) nodos * BYTES_NODO + 2 * caracteresEtiquetas
+                    + (long) valores * BYTES_VALOR + caracteresValores;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long getDescartados() {
+        cerrojo.readLock().lock();
+        try {
+            return descartados;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    // ========================================================================
+    // MÉTODOS AUXILIARES (con el cerrojo de escritura tomado)
+    // ========================================================================
+
+    private static String clave(String valor) {
+        String clave = NormalizadorTexto.claveBusqueda(valor);
+        return clave.length() > LONGITUD_MAXIMA_CLAVE ? clave.substring(0, LONGITUD_MAXIMA_CLAVE) : clave;
+    }
+
+    /**
+     * Posición del hijo cuya etiqueta empieza por c, o -(punto de inserción) - 1
+     */
+    private static int buscarHijo(Nodo nodo, char c) {
+        int bajo = 0;
+        int alto = nodo.hijos.length - 1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            char primero = nodo.hijos[medio].etiqueta[0];
+            if (primero < c) {
+                bajo = medio + 1;
+            } else if (primero > c) {
+                alto = medio - 1;
+            } else {
+                return medio;
+            }
+        }
+        return -(bajo + 1);
+    }
+
+    private static int prefijoComun(char[] etiqueta, String clave, int desde) {
+        int n = Math.min(etiqueta.length, clave.length() - desde);
+        int i = 0;
+        while (i < n && etiqueta[i] == clave.charAt(desde + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private void insertarHijo(Nodo padre, int pos, Nodo hijo) {
+        Nodo[] hijos = new Nodo[padre.hijos.length + 1];
+        System.arraycopy(padre.hijos, 0, hijos, 0, pos);
+        hijos[pos] = hijo;
+        System.arraycopy(padre.hijos, pos, hijos, pos + 1, padre.hijos.length - pos);
+        padre.hijos = hijos;
+        nodos++;
+        caracteresEtiquetas += hijo.etiqueta.length;
+    }
+
+    private void quitarHijo(Nodo padre, Nodo hijo) {
+        int pos = buscarHijo(padre, hijo.etiqueta[0]);
+        Nodo[] hijos = new Nodo[padre.hijos.length - 1];
+        System.arraycopy(padre.hijos, 0, hijos, 0, pos);
+        System.arraycopy(padre.hijos, pos + 1, hijos, pos, padre.hijos.length - pos - 1);
+        padre.hijos = hijos.length == 0 ? SIN_HIJOS : hijos;
+        nodos--;
+        caracteresEtiquetas -= hijo.etiqueta.length;
+    }
+
+    /**
+     * Partir la arista del hijo pos tras 'largo' caracteres; devuelve el nodo intermedio
+     */
+    private Nodo partir(Nodo padre, int pos, int largo) {
+        Nodo hijo = padre.hijos[pos];
+        Nodo intermedio = new Nodo(Arrays.copyOfRange(hijo.etiqueta, 0, largo));
+        hijo.etiqueta = Arrays.copyOfRange(hijo.etiqueta, largo, hijo.etiqueta.length);
+        intermedio.hijos = new Nodo[]{hijo};
+        intermedio.maximo = hijo.maximo;
+        padre.hijos[pos] = intermedio;
+        nodos++;
+        return intermedio;
+    }
+
+    /**
+     * Absorber al único hijo de un nodo intermedio (la arista resultante es la concatenación)
+     */
+    private void fusionarConHijo(Nodo nodo) {
+        Nodo hijo = nodo.hijos[0];
+        char[] etiqueta = Arrays.copyOf(nodo.etiqueta, nodo.etiqueta.length + hijo.etiqueta.length);
+        System.arraycopy(hijo.etiqueta, 0, etiqueta, nodo.etiqueta.length, hijo.etiqueta.length);
+        nodo.etiqueta = etiqueta;
+        nodo.hijos = hijo.hijos;
+        nodo.cuenta = hijo.cuenta;
+        nodo.valor = hijo.valor;
+        nodos--;
+    }
+
+    private static void recalcularMaximo(Nodo nodo) {
+        int maximo = nodo.cuenta;
+        for (Nodo hijo : nodo.hijos) {
+            maximo = Math.max(maximo, hijo.maximo);
+        }
+        nodo.maximo = maximo;
+    }
+}
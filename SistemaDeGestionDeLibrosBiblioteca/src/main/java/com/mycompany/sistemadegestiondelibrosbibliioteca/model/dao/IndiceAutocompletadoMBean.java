@@ -0,0 +1,19 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao;
+
+// IndiceAutocompletadoMBean - Vista JMX de un índice de autocompletado
+// Se publica como com.mycompany.biblioteca:type=Autocompletado,name=<titulos|autores>
+public interface IndiceAutocompletadoMBean {
+
+    // Valores distintos indexados
+    int getValores();
+
+    int getNodos();
+
+    int getMaxNodos();
+
+    // Memoria aproximada ocupada por el trie
+    long getBytesEstimados();
+
+    // Valores no indexados por haber alcanzado maxNodos
+    long getDescartados();
+}
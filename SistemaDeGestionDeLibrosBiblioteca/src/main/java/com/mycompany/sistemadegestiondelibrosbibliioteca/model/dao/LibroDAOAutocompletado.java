@@ -0,0 +1,165 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.metricas.RegistroMetricas;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Sugerencia;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.entity.Libro;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.util.Log;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * LibroDAOAutocompletado - Autocompletado en memoria delante de ILibroDAO
+ * Construye un trie de títulos y otro de autores recorriendo libros en streaming al crearse,
+ * y los mantiene al día con create/update/delete: autocomplete no vuelve a tocar la BD.
+ *
+ * Las bajas se descuentan con los valores que devuelve el propio DELETE ... RETURNING. En un
+ * UPDATE el DAO lee titulo y autor anteriores dentro de su misma transacción de escritura y los
+ * entrega junto con los nuevos: se descuenta el viejo y se suma el nuevo, sin lecturas previas.
+ */
+public class LibroDAOAutocompletado extends LibroDAODecorador {
+
+    private static final Log LOG = Log.de(LibroDAOAutocompletado.class);
+
+    // Más libros primero; a igualdad, por texto sin distinguir mayúsculas (como COLLATE NOCASE)
+    private static final Comparator<Sugerencia> ORDEN = Comparator.comparingInt(Sugerencia::libros).reversed()
+            .thenComparing(Sugerencia::texto, String.CASE_INSENSITIVE_ORDER);
+
+    private final IndiceAutocompletado titulos;
+    private final IndiceAutocompletado autores;
+
+    /**
+     * @param maxNodos máximo de nodos de cada trie (títulos y autores por separado)
+     */
+    public LibroDAOAutocompletado(ILibroDAO delegado, int maxNodos) {
+        super(delegado);
+        this.titulos = new IndiceAutocompletado(Sugerencia.Campo.TITULO, maxNodos);
+        this.autores = new IndiceAutocompletado(Sugerencia.Campo.AUTOR, maxNodos);
+
+        cargar();
+        RegistroMetricas.publicar("Autocompletado", "titulos", titulos);
+        RegistroMetricas.publicar("Autocompletado", "autores", autores);
+    }
+
+    @Override
+    public List<Sugerencia> autocomplete(String prefijo, int limite) {
+        // Las K mejores de la unión están entre las K mejores de cada campo
+        List<Sugerencia> sugerencias = new ArrayList<>(titulos.sugerir(prefijo, limite));
+        sugerencias.addAll(autores.sugerir(prefijo, limite));
+        sugerencias.sort(ORDEN);
+        return sugerencias.size() > limite ? new ArrayList<>(sugerencias.subList(0, limite)) : sugerencias;
+    }
+
+    @Override
+    public Libro create(Libro libro) {
+        Libro creado = delegado.create(libro);
+        agregar(creado);
+        return creado;
+    }
+
+    @Override
+    public ResultadoLote createAll(Collection<Libro> libros) {
+        return agregarInsertados(libros, delegado.createAll(libros));
+    }
+
+    @Override
+    public ResultadoLote createAll(Collection<Libro> libros, int tamanoLote) {
+        return agregarInsertados(libros, delegado.createAll(libros, tamanoLote));
+    }
+
+    @Override
+    public Libro update(Libro libro) {
+        return delegado.update(libro, this::cambiar);
+    }
+
+    @Override
+    public Libro update(Libro libro, BiConsumer<Libro, Libro> cambio) {
+        return delegado.update(libro, (anterior, actualizado) -> {
+            cambiar(anterior, actualizado);
+            cambio.accept(anterior, actualizado);
+        });
+    }
+
+    @Override
+    public boolean delete(Long id) {
+        return deleteReturning(id).isPresent();
+    }
+
+    @Override
+    public Optional<Libro> deleteReturning(Long id) {
+        Optional<Libro> eliminado = delegado.deleteReturning(id);
+        eliminado.ifPresent(this::quitar);
+        return eliminado;
+    }
+
+    @Override
+    public int deleteAll(FiltroLibros filtro) {
+        // Cambiar disponible no altera títulos ni autores: solo el borrado masivo necesita los valores anteriores
+        return delegado.deleteAll(filtro, this::quitar);
+    }
+
+    @Override
+    public int deleteAll(FiltroLibros filtro, Consumer<Libro> eliminados) {
+        return delegado.deleteAll(filtro, libro -> {
+            quitar(libro);
+            eliminados.accept(libro);
+        });
+    }
+
+    public IndiceAutocompletado getTitulos() {
+        return titulos;
+    }
+
+    public IndiceAutocompletado getAutores() {
+        return autores;
+    }
+
+    // ========================================================================
+    // MÉTODOS AUXILIARES
+    // ========================================================================
+
+    private void cargar() {
+        long inicio = System.nanoTime();
+        try (Stream<Libro> libros = delegado.streamAll()) {
+            libros.forEach(this::agregar);
+        }
+        LOG.info(() -> "Autocompletado cargado en " + (System.nanoTime() - inicio) / 1_000_000 + " ms: "
+                + titulos.getValores() + " títulos, " + autores.getValores() + " autores, "
+                + (titulos.getBytesEstimados() + autores.getBytesEstimados()) / 1024 + " KB aprox.");
+        if (titulos.getDescartados() + autores.getDescartados() > 0) {
+            LOG.warn(() -> "Autocompletado incompleto: " + (titulos.getDescartados() + autores.getDescartados())
+                    + " valores no caben en " + titulos.getMaxNodos() + " nodos por índice");
+        }
+    }
+
+    private ResultadoLote agregarInsertados(Collection<Libro> libros, ResultadoLote resultado) {
+        List<Libro> entrada = libros instanceof List<Libro> lista ? lista : new ArrayList<>(libros);
+        for (ResultadoLote.Fila fila : resultado.getFilas()) {
+            if (fila.getEstado() == ResultadoLote.Estado.INSERTADO) {
+                agregar(entrada.get(fila.getIndice()));
+            }
+        }
+        return resultado;
+    }
+
+    private void agregar(Libro libro) {
+        titulos.agregar(libro.getTitulo());
+        autores.agregar(libro.getAutor());
+    }
+
+    private void quitar(Libro libro) {
+        titulos.quitar(libro.getTitulo());
+        autores.quitar(libro.getAutor());
+    }
+
+    // Se ejecuta con el carril de escritura aún prestado: los cambios llegan en el orden en que se confirmaron
+    private void cambiar(Libro anterior, Libro actualizado) {
+        quitar(anterior);
+        agregar(actualizado);
+    }
+}
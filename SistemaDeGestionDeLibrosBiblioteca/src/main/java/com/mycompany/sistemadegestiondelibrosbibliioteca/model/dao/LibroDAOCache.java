@@ -0,0 +1,327 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.metricas.RegistroMetricas;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.entity.Libro;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * LibroDAOCache - Caché read-through delante de ILibroDAO.read
+ * LRU acotada por número de entradas y por peso aproximado en bytes, con TTL opcional.
+ * update/delete (también los masivos) invalidan la entrada; se guardan y entregan copias para que
+ * nadie modifique el objeto cacheado. Las estadísticas se publican por JMX (LibroDAOCacheMBean).
+ */
+public class LibroDAOCache extends LibroDAODecorador implements LibroDAOCacheMBean {
+
+    private final int capacidad;
+    private final long pesoMaximo;
+    private final long ttlNanos;
+
+    // accessOrder = true: el primer elemento es el menos usado recientemente
+    private final LinkedHashMap<Long, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    private long pesoActual = 0;
+
+    // Se incrementa en cada invalidación: una lectura concurrente no vuelve a cachear datos viejos
+    private long generacion = 0;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+    private final LongAdder expiraciones = new LongAdder();
+
+    /**
+     * @param capacidad  máximo de libros cacheados
+     * @param pesoMaximo máximo de bytes estimados (0 = sin límite de peso)
+     * @param ttlMs      vida de cada entrada (0 = sin expiración)
+     */
+    public LibroDAOCache(ILibroDAO delegado, int capacidad, long pesoMaximo, long ttlMs) {
+        super(delegado);
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad de la caché debe ser positiva");
+        }
+        this.capacidad = capacidad;
+        this.pesoMaximo = pesoMaximo;
+        this.ttlNanos = ttlMs > 0 ? ttlMs * 1_000_000L : 0;
+
+        RegistroMetricas.publicar("Cache", "libros", this);
+    }
+
+    @Override
+    public Optional<Libro> read(Long id) {
+        if (id == null || id <= 0) {
+            return Optional.empty();
+        }
+
+        long generacionLectura;
+        synchronized (this) {
+            Entrada entrada = entradas.get(id);
+            if (entrada != null) {
+                if (ttlNanos == 0 || System.nanoTime() < entrada.expira) {
+                    aciertos.increment();
+                    return Optional.of(copiar(entrada.libro));
+                }
+                quitar(id);
+                expiraciones.increment();
+            }
+            generacionLectura = generacion;
+        }
+
+        fallos.increment();
+        Optional<Libro> leido = delegado.read(id);
+        leido.ifPresent(libro -> guardar(libro, generacionLectura));
+        return leido;
+    }
+
+    @Override
+    public Resultado<Libro> find(Long id) {
+        if (id == null || id <= 0) {
+            return delegado.find(id);
+        }
+
+        long generacionLectura;
+        synchronized (this) {
+            Entrada entrada = entradas.get(id);
+            if (entrada != null) {
+                if (ttlNanos == 0 || System.nanoTime() < entrada.expira) {
+                    aciertos.increment();
+                    return Resultado.encontrado(copiar(entrada.libro));
+                }
+                quitar(id);
+                expiraciones.increment();
+            }
+            generacionLectura = generacion;
+        }
+
+        // Solo se cachea lo encontrado: un FALLO vuelve a consultar la BD la próxima vez
+        fallos.increment();
+        Resultado<Libro> leido = delegado.find(id);
+        if (leido.isEncontrado()) {
+            guardar(leido.getValor(), generacionLectura);
+        }
+        return leido;
+    }
+
+    @Override
+    public Libro create(Libro libro) {
+        Libro creado = delegado.create(libro);
+        long generacionActual;
+        synchronized (this) {
+            generacionActual = generacion;
+        }
+        guardar(creado, generacionActual);
+        return creado;
+    }
+
+    @Override
+    public Libro update(Libro libro) {
+        invalidar(libro.getId());
+        Libro actualizado = delegado.update(libro);
+        // Tras la escritura la entrada vuelve a invalidarse: la próxima lectura trae el valor confirmado
+        invalidar(libro.getId());
+        return actualizado;
+    }
+
+    @Override
+    public Libro update(Libro libro, BiConsumer<Libro, Libro> cambio) {
+        invalidar(libro.getId());
+        Libro actualizado = delegado.update(libro, cambio);
+        invalidar(libro.getId());
+        return actualizado;
+    }
+
+    @Override
+    public boolean delete(Long id) {
+        invalidar(id);
+        boolean eliminado = delegado.delete(id);
+        invalidar(id);
+        return eliminado;
+    }
+
+    @Override
+    public Optional<Libro> deleteReturning(Long id) {
+        invalidar(id);
+        Optional<Libro> eliminado = delegado.deleteReturning(id);
+        invalidar(id);
+        return eliminado;
+    }
+
+    @Override
+    public int deleteAll(FiltroLibros filtro) {
+        invalidar(filtro);
+        int eliminados = delegado.deleteAll(filtro);
+        invalidar(filtro);
+        return eliminados;
+    }
+
+    @Override
+    public int deleteAll(FiltroLibros filtro, Consumer<Libro> eliminados) {
+        invalidar(filtro);
+        int total = delegado.deleteAll(filtro, eliminados);
+        invalidar(filtro);
+        return total;
+    }
+
+    @Override
+    public int setDisponible(FiltroLibros filtro, boolean disponible) {
+        invalidar(filtro);
+        int cambiados = delegado.setDisponible(filtro, disponible);
+        invalidar(filtro);
+        return cambiados;
+    }
+
+    /**
+     * Quitar de la caché los libros que puede tocar una operación masiva
+     * Solo con IDs se sabe cuáles son; por autor o por años se vacía entera
+     */
+    private synchronized void invalidar(FiltroLibros filtro) {
+        if (!filtro.soloIds()) {
+            invalidarTodo();
+            return;
+        }
+        generacion++;
+        for (Long id : filtro.getIds()) {
+            quitar(id);
+        }
+    }
+
+    /**
+     * Quitar un libro de la caché
+     */
+    public synchronized void invalidar(Long id) {
+        generacion++;
+        if (id != null) {
+            quitar(id);
+        }
+    }
+
+    /**
+     * Vaciar la caché por completo
+     */
+    public synchronized void invalidarTodo() {
+        generacion++;
+        entradas.clear();
+        pesoActual = 0;
+    }
+
+    // ========================================================================
+    // ESTADÍSTICAS
+    // ========================================================================
+
+    @Override
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    @Override
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    @Override
+    public long getDesalojos() {
+        return desalojos.sum();
+    }
+
+    @Override
+    public long getExpiraciones() {
+        return expiraciones.sum();
+    }
+
+    @Override
+    public double getTasaAciertos() {
+        long total = getAciertos() + getFallos();
+        return total == 0 ? 0.0 : (double) getAciertos() / total;
+    }
+
+    @Override
+    public synchronized int getTamano() {
+        return entradas.size();
+    }
+
+    @Override
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    @Override
+    public synchronized long getPesoActual() {
+        return pesoActual;
+    }
+
+    @Override
+    public long getPesoMaximo() {
+        return pesoMaximo;
+    }
+
+    @Override
+    public String toString() {
+        return "LibroDAOCache{" +
+                "tamano=" + getTamano() + "/" + capacidad +
+                ", peso=" + getPesoActual() + (pesoMaximo > 0 ? "/" + pesoMaximo : "") +
+                ", aciertos=" + getAciertos() +
+                ", fallos=" + getFallos() +
+                ", desalojos=" + getDesalojos() +
+                ", expiraciones=" + getExpiraciones() +
+                '}';
+    }
+
+    // ========================================================================
+    // MÉTODOS AUXILIARES
+    // ========================================================================
+
+    private synchronized void guardar(Libro libro, long generacionLectura) {
+        if (libro == null || libro.getId() == null || generacionLectura != generacion) {
+            return;
+        }
+
+        quitar(libro.getId());
+        Entrada entrada = new Entrada(copiar(libro), ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0);
+        entradas.put(libro.getId(), entrada);
+        pesoActual += entrada.peso;
+
+        Iterator<Map.Entry<Long, Entrada>> it = entradas.entrySet().iterator();
+        while (it.hasNext() && (entradas.size() > capacidad || (pesoMaximo > 0 && pesoActual > pesoMaximo))) {
+            Entrada desalojada = it.next().getValue();
+            it.remove();
+            pesoActual -= desalojada.peso;
+            desalojos.increment();
+        }
+    }
+
+    private void quitar(Long id) {
+        Entrada anterior = entradas.remove(id);
+        if (anterior != null) {
+            pesoActual -= anterior.peso;
+        }
+    }
+
+    private static Libro copiar(Libro libro) {
+        return new Libro(libro.getId(), libro.getTitulo(), libro.getAutor(),
+                libro.getAnoPublicacion(), libro.getDisponible(), libro.getVersion());
+    }
+
+    /**
+     * Entrada cacheada con su expiración y peso estimado
+     */
+    private static final class Entrada {
+        final Libro libro;
+        final long expira;
+        final long peso;
+
+        Entrada(Libro libro, long expira) {
+            this.libro = libro;
+            this.expira = expira;
+            // Cabeceras de objeto + caracteres de los textos (estimación grosera)
+            this.peso = 96 + 2L * (longitud(libro.getTitulo()) + longitud(libro.getAutor()));
+        }
+
+        private static int longitud(String texto) {
+            return texto == null ? 0 : texto.length();
+        }
+    }
+}
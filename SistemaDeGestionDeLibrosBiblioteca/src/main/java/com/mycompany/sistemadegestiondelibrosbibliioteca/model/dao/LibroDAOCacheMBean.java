@@ -0,0 +1,30 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao;
+
+// LibroDAOCacheMBean - Vista JMX de la caché de lecturas por id
+// Se publica como com.mycompany.biblioteca:type=Cache,name=libros
+public interface LibroDAOCacheMBean {
+
+    // Lecturas servidas desde la caché
+    long getAciertos();
+
+    // Lecturas que tuvieron que ir al DAO
+    long getFallos();
+
+    // Entradas expulsadas por capacidad o peso
+    long getDesalojos();
+
+    // Entradas descartadas por TTL al leerlas
+    long getExpiraciones();
+
+    double getTasaAciertos();
+
+    int getTamano();
+
+    int getCapacidad();
+
+    // Bytes estimados de las entradas cacheadas
+    long getPesoActual();
+
+    // 0 = sin límite de peso
+    long getPesoMaximo();
+}
@@ -0,0 +1,180 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.metricas.RegistroMetricas;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ConteoAno;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ConteoAutor;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ResumenDisponibilidad;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.entity.Libro;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.util.Log;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * LibroDAOColumnar - Recuentos analíticos desde una instantánea columnar en memoria
+ * Carga CatalogoColumnar con un recorrido en streaming al crearse y le aplica cada escritura
+ * que pasa por aquí (alta, cambio, baja, operaciones masivas) en lugar de recargarlo:
+ * countByAuthor, countByYear y countAvailability ya no tocan SQLite.
+ */
+public class LibroDAOColumnar extends LibroDAODecorador {
+
+    private static final Log LOG = Log.de(LibroDAOColumnar.class);
+
+    private final CatalogoColumnar catalogo = new CatalogoColumnar();
+
+    // Las escrituras se aplican a la instantánea en el mismo orden en que se confirmaron en la BD
+    private final Object cerrojoCambios = new Object();
+
+    public LibroDAOColumnar(ILibroDAO delegado) {
+        super(delegado);
+        cargar();
+        RegistroMetricas.publicar("Columnar", "libros", catalogo);
+    }
+
+    @Override
+    public Libro create(Libro libro) {
+        synchronized (cerrojoCambios) {
+            Libro creado = delegado.create(libro);
+            catalogo.agregar(creado);
+            return creado;
+        }
+    }
+
+    @Override
+    public ResultadoLote createAll(Collection<Libro> libros) {
+        synchronized (cerrojoCambios) {
+            return agregarInsertados(libros, delegado.createAll(libros));
+        }
+    }
+
+    @Override
+    public ResultadoLote createAll(Collection<Libro> libros, int tamanoLote) {
+        synchronized (cerrojoCambios) {
+            return agregarInsertados(libros, delegado.createAll(libros, tamanoLote));
+        }
+    }
+
+    @Override
+    public Libro update(Libro libro) {
+        synchronized (cerrojoCambios) {
+            Libro actualizado = delegado.update(libro);
+            catalogo.actualizar(actualizado);
+            return actualizado;
+        }
+    }
+
+    @Override
+    public Libro update(Libro libro, BiConsumer<Libro, Libro> cambio) {
+        synchronized (cerrojoCambios) {
+            Libro actualizado = delegado.update(libro, cambio);
+            catalogo.actualizar(actualizado);
+            return actualizado;
+        }
+    }
+
+    @Override
+    public boolean delete(Long id) {
+        synchronized (cerrojoCambios) {
+            boolean eliminado = delegado.delete(id);
+            if (eliminado) {
+                catalogo.quitar(id);
+            }
+            return eliminado;
+        }
+    }
+
+    @Override
+    public Optional<Libro> deleteReturning(Long id) {
+        synchronized (cerrojoCambios) {
+            Optional<Libro> eliminado = delegado.deleteReturning(id);
+            eliminado.ifPresent(libro -> catalogo.quitar(libro.getId()));
+            return eliminado;
+        }
+    }
+
+    @Override
+    public int deleteAll(FiltroLibros filtro) {
+        // La instantánea evalúa el mismo filtro: no hace falta saber qué IDs borró la BD
+        synchronized (cerrojoCambios) {
+            int eliminados = delegado.deleteAll(filtro);
+            if (eliminados > 0) {
+                catalogo.quitar(filtro);
+            }
+            return eliminados;
+        }
+    }
+
+    @Override
+    public int deleteAll(FiltroLibros filtro, Consumer<Libro> eliminados) {
+        synchronized (cerrojoCambios) {
+            int total = delegado.deleteAll(filtro, eliminados);
+            if (total > 0) {
+                catalogo.quitar(filtro);
+            }
+            return total;
+        }
+    }
+
+    @Override
+    public int setDisponible(FiltroLibros filtro, boolean disponible) {
+        synchronized (cerrojoCambios) {
+            int cambiados = delegado.setDisponible(filtro, disponible);
+            if (cambiados > 0) {
+                catalogo.cambiarDisponible(filtro, disponible);
+            }
+            return cambiados;
+        }
+    }
+
+    @Override
+    public List<ConteoAutor> countByAuthor(int limite) {
+        return catalogo.contarPorAutor(limite);
+    }
+
+    @Override
+    public List<ConteoAno> countByYear(int desde, int hasta) {
+        return catalogo.contarPorAno(desde, hasta);
+    }
+
+    @Override
+    public ResumenDisponibilidad countAvailability() {
+        return catalogo.contarDisponibilidad();
+    }
+
+    @Override
+    public ResumenDisponibilidad countAvailability(FiltroLibros filtro) {
+        return catalogo.contar(filtro);
+    }
+
+    public CatalogoColumnar getCatalogo() {
+        return catalogo;
+    }
+
+    // ========================================================================
+    // MÉTODOS AUXILIARES
+    // ========================================================================
+
+    private void cargar() {
+        long inicio = System.nanoTime();
+        try (Stream<Libro> libros = delegado.streamAll()) {
+            catalogo.cargar(libros.iterator());
+        }
+        LOG.info(() -> "Instantánea columnar cargada en " + (System.nanoTime() - inicio) / 1_000_000 + " ms: "
+                + catalogo.getLibros() + " libros, " + catalogo.getAutores() + " autores, "
+                + catalogo.getBytesEstimados() / 1024 + " KB aprox.");
+    }
+
+    private ResultadoLote agregarInsertados(Collection<Libro> libros, ResultadoLote resultado) {
+        List<Libro> entrada = libros instanceof List<Libro> lista ? lista : new ArrayList<>(libros);
+        for (ResultadoLote.Fila fila : resultado.getFilas()) {
+            if (fila.getEstado() == ResultadoLote.Estado.INSERTADO) {
+                catalogo.agregar(entrada.get(fila.getIndice()));
+            }
+        }
+        return resultado;
+    }
+}
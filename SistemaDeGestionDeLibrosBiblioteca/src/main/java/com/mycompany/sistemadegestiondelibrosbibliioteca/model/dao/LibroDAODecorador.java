@@ -0,0 +1,159 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ConteoAno;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ConteoAutor;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Pagina;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ResumenDisponibilidad;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Sugerencia;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.entity.Libro;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// LibroDAODecorador - Base para decoradores de ILibroDAO
+// Delega todas las operaciones; cada decorador sobrescribe solo las que le interesan
+// Las variantes por colección de IDs (métodos default) pasan por las de FiltroLibros
+public abstract class LibroDAODecorador implements ILibroDAO {
+
+    protected final ILibroDAO delegado;
+
+    protected LibroDAODecorador(ILibroDAO delegado) {
+        if (delegado == null) {
+            throw new IllegalArgumentException("El DAO decorado no puede ser nulo");
+        }
+        this.delegado = delegado;
+    }
+
+    @Override
+    public Libro create(Libro libro) {
+        return delegado.create(libro);
+    }
+
+    @Override
+    public Optional<Libro> read(Long id) {
+        return delegado.read(id);
+    }
+
+    @Override
+    public Resultado<Libro> find(Long id) {
+        return delegado.find(id);
+    }
+
+    @Override
+    public Libro update(Libro libro) {
+        return delegado.update(libro);
+    }
+
+    @Override
+    public Libro update(Libro libro, BiConsumer<Libro, Libro> cambio) {
+        return delegado.update(libro, cambio);
+    }
+
+    @Override
+    public boolean delete(Long id) {
+        return delegado.delete(id);
+    }
+
+    @Override
+    public Optional<Libro> deleteReturning(Long id) {
+        return delegado.deleteReturning(id);
+    }
+
+    @Override
+    public List<Libro> readAll() {
+        return delegado.readAll();
+    }
+
+    @Override
+    public <T> List<T> readAll(ProyeccionLibro<T> proyeccion) {
+        return delegado.readAll(proyeccion);
+    }
+
+    @Override
+    public Stream<Libro> streamAll() {
+        return delegado.streamAll();
+    }
+
+    @Override
+    public <T> Stream<T> streamAll(ProyeccionLibro<T> proyeccion) {
+        return delegado.streamAll(proyeccion);
+    }
+
+    @Override
+    public List<Libro> readAll(FiltroLibros filtro) {
+        return delegado.readAll(filtro);
+    }
+
+    @Override
+    public int deleteAll(FiltroLibros filtro) {
+        return delegado.deleteAll(filtro);
+    }
+
+    @Override
+    public int deleteAll(FiltroLibros filtro, Consumer<Libro> eliminados) {
+        return delegado.deleteAll(filtro, eliminados);
+    }
+
+    @Override
+    public int setDisponible(FiltroLibros filtro, boolean disponible) {
+        return delegado.setDisponible(filtro, disponible);
+    }
+
+    @Override
+    public Stream<Libro> streamAll(int fetchSize) {
+        return delegado.streamAll(fetchSize);
+    }
+
+    @Override
+    public Pagina<Libro> readPage(OrdenLibro orden, String token, int tamano) {
+        return delegado.readPage(orden, token, tamano);
+    }
+
+    @Override
+    public List<Libro> search(String consulta, int limite) {
+        return delegado.search(consulta, limite);
+    }
+
+    @Override
+    public List<Sugerencia> autocomplete(String prefijo, int limite) {
+        return delegado.autocomplete(prefijo, limite);
+    }
+
+    @Override
+    public List<ConteoAutor> countByAuthor(int limite) {
+        return delegado.countByAuthor(limite);
+    }
+
+    @Override
+    public List<ConteoAno> countByYear(int desde, int hasta) {
+        return delegado.countByYear(desde, hasta);
+    }
+
+    @Override
+    public ResumenDisponibilidad countAvailability() {
+        return delegado.countAvailability();
+    }
+
+    @Override
+    public ResumenDisponibilidad countAvailability(FiltroLibros filtro) {
+        return delegado.countAvailability(filtro);
+    }
+
+    @Override
+    public boolean exists(String titulo, String autor) {
+        return delegado.exists(titulo, autor);
+    }
+
+    @Override
+    public ResultadoLote createAll(Collection<Libro> libros) {
+        return delegado.createAll(libros);
+    }
+
+    @Override
+    public ResultadoLote createAll(Collection<Libro> libros, int tamanoLote) {
+        return delegado.createAll(libros, tamanoLote);
+    }
+}
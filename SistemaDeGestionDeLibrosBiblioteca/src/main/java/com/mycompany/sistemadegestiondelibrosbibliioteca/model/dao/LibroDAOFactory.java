@@ -0,0 +1,81 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.config.DatabaseConfig;
+
+// LibroDAOFactory - Compone el DAO JDBC con sus decoradores según la configuración
+// -Dbiblioteca.cache.capacidad=0 desactiva la caché de lecturas por id
+// -Dbiblioteca.metricas=false desactiva la medición de operaciones
+// -Dbiblioteca.autocompletado.maxNodos=0 desactiva el autocompletado en memoria
+// -Dbiblioteca.columnar=true responde los recuentos analíticos desde una instantánea columnar en memoria
+public final class LibroDAOFactory {
+
+    private static final boolean METRICAS = Boolean.parseBoolean(System.getProperty("biblioteca.metricas", "true"));
+
+    private static final int CACHE_CAPACIDAD = Integer.getInteger("biblioteca.cache.capacidad", 1000);
+    private static final long CACHE_PESO_MAXIMO = Long.getLong("biblioteca.cache.pesoMaximo", 0);
+    private static final long CACHE_TTL_MS = Long.getLong("biblioteca.cache.ttlMs", 0);
+
+    private static final int AUTOCOMPLETADO_MAX_NODOS = Integer.getInteger("biblioteca.autocompletado.maxNodos", 500_000);
+
+    private static final boolean COLUMNAR = Boolean.getBoolean("biblioteca.columnar");
+
+    // Cadena compartida por todos los servicios; se descarta al cerrar la BD
+    private static volatile ILibroDAO compartido;
+
+    private LibroDAOFactory() {
+    }
+
+    // compartido - DAO único de la aplicación, creado en el primer uso
+    // Una sola caché, un solo trie y una sola instantánea: las escrituras de cualquier servicio
+    // los mantienen al día, y la tabla se recorre una vez al arrancar en lugar de una por servicio
+    public static ILibroDAO compartido() {
+        ILibroDAO dao = compartido;
+        if (dao == null) {
+            synchronized (LibroDAOFactory.class) {
+                dao = compartido;
+                if (dao == null) {
+                    dao = crear();
+                    compartido = dao;
+                    DatabaseConfig.alCerrar(LibroDAOFactory::descartarCompartido);
+                }
+            }
+        }
+        return dao;
+    }
+
+    // esCompartido - Si el DAO es la cadena compartida actual (sin crearla si aún no existe)
+    public static boolean esCompartido(ILibroDAO dao) {
+        return dao != null && dao == compartido;
+    }
+
+    private static synchronized void descartarCompartido() {
+        compartido = null;
+    }
+
+    // crear - Cadena de decoradores nueva e independiente (la aplicación usa compartido())
+    public static ILibroDAO crear() {
+        ILibroDAO dao = new LibroDAOImpl();
+
+        // Las métricas van pegadas al DAO JDBC: miden el coste real en SQLite, sin aciertos de caché
+        if (METRICAS) {
+            dao = new LibroDAOMetricas(dao);
+        }
+
+        // Debajo de la caché: los valores anteriores le llegan del DAO JDBC (DELETE ... RETURNING en las bajas,
+        // SELECT en la misma transacción que el UPDATE), nunca de una copia cacheada
+        if (AUTOCOMPLETADO_MAX_NODOS > 0) {
+            dao = new LibroDAOAutocompletado(dao, AUTOCOMPLETADO_MAX_NODOS);
+        }
+
+        // Encima de las métricas: sus recuentos no llegan a SQLite y no deben medirse como tales
+        if (COLUMNAR) {
+            dao = new LibroDAOColumnar(dao);
+        }
+
+        if (CACHE_CAPACIDAD > 0) {
+            dao = new LibroDAOCache(dao, CACHE_CAPACIDAD, CACHE_PESO_MAXIMO, CACHE_TTL_MS);
+        }
+
+        return dao;
+    }
+}
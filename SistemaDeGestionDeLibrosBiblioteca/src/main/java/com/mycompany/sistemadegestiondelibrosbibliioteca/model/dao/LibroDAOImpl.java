@@ -1,18 +1,59 @@
 package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao;
 
 import com.mycompany.sistemadegestiondelibrosbibliioteca.config.DatabaseConfig;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ConteoAno;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ConteoAutor;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Pagina;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ResumenDisponibilidad;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Sugerencia;
 import com.mycompany.sistemadegestiondelibrosbibliioteca.model.entity.Libro;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.util.Log;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.util.NormalizadorTexto;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.sqlite.SQLiteErrorCode;
+import org.sqlite.SQLiteException;
 
 
 public class LibroDAOImpl implements ILibroDAO {
 
+    private static final Log LOG = Log.de(LibroDAOImpl.class);
+
+    // Filas por executeBatch y por consulta de duplicados (-Dbiblioteca.lote.tamano)
+    private static final int TAMANO_LOTE = Integer.getInteger("biblioteca.lote.tamano", 500);
+
+    // Filas pedidas al driver por vuelta en los recorridos en streaming (-Dbiblioteca.stream.fetchSize)
+    private static final int FETCH_SIZE = Integer.getInteger("biblioteca.stream.fetchSize", 256);
+
+    // Palabras de una consulta de búsqueda que se tienen en cuenta
+    private static final int MAX_PALABRAS_BUSQUEDA = 8;
+
+    // Columnas de un libro en el orden que espera proyectar(): se leen por posición, no por nombre
+    private static final String COLUMNAS = "id, titulo, autor, ano_publicacion, disponible, version";
+
     /**
      * CREATE - Insertar nuevo libro
-     * Valida duplicados antes de insertar
+     * Un único INSERT ... SELECT ... WHERE NOT EXISTS RETURNING: si UNIQUE(titulo, autor) ya tiene
+     * la clave no devuelve fila y se lanza LibroDuplicadoException, sin SELECT previo ni ventana
+     * entre comprobar e insertar
+     * La sonda usa el índice UNIQUE y evita que el duplicado consuma un valor de AUTOINCREMENT (con solo
+     * ON CONFLICT DO NOTHING cada rechazo dejaba un hueco en los IDs). Aun así un duplicado ocupa un
+     * turno del carril de escritura, aunque sin cambios que confirmar no llega al WAL ni hace fsync.
+     * ON CONFLICT queda como red por si otro proceso inserta la misma clave a la vez (ahí sí habría hueco).
      */
     @Override
     public Libro create(Libro libro) {
@@ -20,15 +61,12 @@ public class LibroDAOImpl implements ILibroDAO {
         String tituloSanitizado = sanitizarTexto(libro.getTitulo());
         String autorSanitizado = sanitizarTexto(libro.getAutor());
 
-        // Validar duplicados
-        if (exists(tituloSanitizado, autorSanitizado)) {
-            throw new RuntimeException("El libro '" + tituloSanitizado + "' de " + autorSanitizado + " ya existe");
-        }
-
-        String sql = "INSERT INTO libros (titulo, autor, ano_publicacion, disponible) VALUES (?, ?, ?, ?)";
+        String sql = "INSERT INTO libros (titulo, autor, ano_publicacion, disponible) SELECT ?1, ?2, ?3, ?4 "
+                + "WHERE NOT EXISTS (SELECT 1 FROM libros WHERE titulo = ?1 AND autor = ?2) "
+                + "ON CONFLICT (titulo, autor) DO NOTHING RETURNING id";
 
-        try (Connection conn = DatabaseConfig.getConexion();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = DatabaseConfig.getConexionEscritura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             // Parámetros sanitizados
             pstmt.setString(1, tituloSanitizado);
@@ -36,23 +74,22 @@ public class LibroDAOImpl implements ILibroDAO {
             pstmt.setInt(3, libro.getAnoPublicacion());
             pstmt.setBoolean(4, libro.getDisponible() != null ? libro.getDisponible() : true);
 
-            int filasAfectadas = pstmt.executeUpdate();
-
-            if (filasAfectadas > 0) {
-                try (ResultSet rs = pstmt.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        libro.setId(rs.getLong(1));
-                        libro.setTitulo(tituloSanitizado);
-                        libro.setAutor(autorSanitizado);
-                        System.out.println("Registros insertados");
-                    }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    LOG.debug(() -> "DUPLICADO DETECTADO: " + tituloSanitizado + " - " + autorSanitizado);
+                    throw new LibroDuplicadoException(tituloSanitizado, autorSanitizado);
                 }
+                libro.setId(rs.getLong(1));
             }
 
         } catch (SQLException e) {
             throw new RuntimeException("Error al crear libro: " + e.getMessage());
         }
 
+        libro.setTitulo(tituloSanitizado);
+        libro.setAutor(autorSanitizado);
+        libro.setVersion(1L);
+        LOG.debug(() -> "CREATE exitoso - Libro insertado con ID " + libro.getId());
         return libro;
     }
 
@@ -65,38 +102,82 @@ public class LibroDAOImpl implements ILibroDAO {
             return Optional.empty();
         }
 
-        String sql = "SELECT id, titulo, autor, ano_publicacion, disponible FROM libros WHERE id = ?";
+        String sql = "SELECT " + COLUMNAS + " FROM libros WHERE id = ?";
 
-        System.out.println("🔍 DAO READ: Buscando libro ID " + id);
-        System.out.println("📝 SQL: " + sql);
+        LOG.debug(() -> "DAO READ: Buscando libro ID " + id);
+        LOG.sql(sql);
 
-        try (Connection conn = DatabaseConfig.getConexion();
+        try (Connection conn = DatabaseConfig.getConexionLectura();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setLong(1, id);
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    Libro libro = mapearResultSet(rs);
-                    System.out.println("✅ READ exitoso - Libro encontrado: " + libro.getTitulo());
+                    Libro libro = proyectar(rs, ProyeccionLibro.ENTIDAD);
+                    LOG.debug(() -> "READ exitoso - Libro encontrado: " + libro.getTitulo());
                     return Optional.of(libro);
                 } else {
-                    System.out.println("❌ READ - Libro no encontrado");
+                    LOG.debug(() -> "READ - Libro no encontrado: " + id);
                     return Optional.empty();
                 }
             }
 
         } catch (SQLException e) {
-            System.err.println("❌ Error en READ: " + e.getMessage());
+            LOG.error(() -> "Error en READ: " + e.getMessage());
             return Optional.empty();
         }
     }
 
+    /**
+     * FIND - Buscar libro por ID con el desenlace tipado
+     * A diferencia de read, un error de la BD es FALLO (y no un "no encontrado")
+     */
+    @Override
+    public Resultado<Libro> find(Long id) {
+        if (id == null || id <= 0) {
+            return Resultado.invalido("ID inválido: " + id);
+        }
+
+        String sql = "SELECT " + COLUMNAS + " FROM libros WHERE id = ?";
+
+        LOG.debug(() -> "DAO FIND: Buscando libro ID " + id);
+        LOG.sql(sql);
+
+        try (Connection conn = DatabaseConfig.getConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setLong(1, id);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? Resultado.encontrado(proyectar(rs, ProyeccionLibro.ENTIDAD)) : Resultado.noEncontrado();
+            }
+
+        } catch (SQLException e) {
+            LOG.error(() -> "Error en FIND: " + e.getMessage());
+            return Resultado.fallo(new RuntimeException("Error al leer libro: " + e.getMessage(), e));
+        }
+    }
+
     /**
      * UPDATE - Actualizar libro existente
+     * Con version: UPDATE condicional (WHERE id = ? AND version = ?) que falla con
+     * ConflictoVersionException si otro escritor se adelantó. Sin version sobrescribe.
+     * disponible null conserva el valor guardado; RETURNING trae la versión nueva en la misma sentencia.
+     * Si el nuevo título y autor ya son de otro libro, UNIQUE lo rechaza: LibroDuplicadoException.
      */
     @Override
     public Libro update(Libro libro) {
+        return update(libro, null);
+    }
+
+    /**
+     * UPDATE con el valor anterior - La fila previa se lee con un SELECT en la misma transacción
+     * de escritura que el UPDATE; el consumidor recibe ambos tras el commit, con el carril de
+     * escritura aún prestado (los cambios le llegan en el orden en que se confirmaron)
+     */
+    @Override
+    public Libro update(Libro libro, BiConsumer<Libro, Libro> cambio) {
         if (libro.getId() == null) {
             throw new IllegalArgumentException("ID requerido para actualizar");
         }
@@ -104,39 +185,86 @@ public class LibroDAOImpl implements ILibroDAO {
         // Sanitizar datos
         String tituloSanitizado = sanitizarTexto(libro.getTitulo());
         String autorSanitizado = sanitizarTexto(libro.getAutor());
+        Long versionEsperada = libro.getVersion();
 
-        String sql = "UPDATE libros SET titulo = ?, autor = ?, ano_publicacion = ?, disponible = ? WHERE id = ?";
+        String sql = "UPDATE libros SET titulo = ?, autor = ?, ano_publicacion = ?, "
+                + "disponible = COALESCE(?, disponible), version = version + 1 WHERE id = ?"
+                + (versionEsperada != null ? " AND version = ?" : "")
+                + " RETURNING version, disponible";
 
-        System.out.println("📝 DAO UPDATE: Actualizando libro ID " + libro.getId());
-        System.out.println("📝 SQL: " + sql);
-        System.out.println("📚 Nuevos datos: " + tituloSanitizado + " - " + autorSanitizado);
+        LOG.debug(() -> "DAO UPDATE: Actualizando libro ID " + libro.getId()
+                + " con " + tituloSanitizado + " - " + autorSanitizado);
+        LOG.sql(sql);
 
-        try (Connection conn = DatabaseConfig.getConexion();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConexionEscritura()) {
+            if (cambio == null) {
+                return actualizar(conn, sql, libro, tituloSanitizado, autorSanitizado, versionEsperada);
+            }
+
+            Libro anterior;
+            Libro actualizado;
+            conn.setAutoCommit(false);
+            try {
+                anterior = leerLibro(conn, libro.getId());
+                actualizado = actualizar(conn, sql, libro, tituloSanitizado, autorSanitizado, versionEsperada);
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            cambio.accept(anterior, actualizado);
+            return actualizado;
+
+        } catch (SQLException e) {
+            if (esDuplicado(e)) {
+                LOG.debug(() -> "UPDATE - Título y autor ya existentes: " + tituloSanitizado + " - " + autorSanitizado);
+                throw new LibroDuplicadoException(tituloSanitizado, autorSanitizado, e);
+            }
+            LOG.error(() -> "Error en UPDATE: " + e.getMessage());
+            throw new RuntimeException("Error al actualizar libro: " + e.getMessage(), e);
+        }
+    }
+
+    // UPDATE ... RETURNING sobre la conexión de escritura; sin fila, conflicto de versión o libro inexistente
+    private static Libro actualizar(Connection conn, String sql, Libro libro, String tituloSanitizado,
+                                    String autorSanitizado, Long versionEsperada) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, tituloSanitizado);
             pstmt.setString(2, autorSanitizado);
             pstmt.setInt(3, libro.getAnoPublicacion());
-            pstmt.setBoolean(4, libro.getDisponible() != null ? libro.getDisponible() : true);
+            if (libro.getDisponible() != null) {
+                pstmt.setBoolean(4, libro.getDisponible());
+            } else {
+                pstmt.setNull(4, Types.BOOLEAN);
+            }
             pstmt.setLong(5, libro.getId());
+            if (versionEsperada != null) {
+                pstmt.setLong(6, versionEsperada);
+            }
 
-            int filasAfectadas = pstmt.executeUpdate();
-
-            if (filasAfectadas > 0) {
-                libro.setTitulo(tituloSanitizado);
-                libro.setAutor(autorSanitizado);
-                System.out.println("✅ UPDATE exitoso - Libro actualizado");
-            } else {
-                System.out.println("❌ UPDATE - Libro no encontrado para actualizar");
-                throw new RuntimeException("Libro no encontrado para actualizar");
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    libro.setTitulo(tituloSanitizado);
+                    libro.setAutor(autorSanitizado);
+                    libro.setVersion(rs.getLong(1));
+                    libro.setDisponible(rs.getBoolean(2));
+                    LOG.debug(() -> "UPDATE exitoso - Libro actualizado a la versión " + libro.getVersion());
+                    return libro;
+                }
             }
 
-        } catch (SQLException e) {
-            System.err.println("❌ Error en UPDATE: " + e.getMessage());
-            throw new RuntimeException("Error al actualizar libro: " + e.getMessage());
+            // Ninguna fila: distinguir libro inexistente de versión desfasada (solo en el camino de fallo)
+            Long versionActual = versionEsperada != null ? leerVersion(conn, libro.getId()) : null;
+            if (versionActual != null) {
+                LOG.debug(() -> "UPDATE - Conflicto de versión en libro " + libro.getId());
+                throw new ConflictoVersionException(libro.getId(), versionEsperada, versionActual);
+            }
+            LOG.debug(() -> "UPDATE - Libro no encontrado para actualizar: " + libro.getId());
+            throw new LibroNoEncontradoException(libro.getId());
         }
-
-        return libro;
     }
 
     /**
@@ -150,10 +278,10 @@ public class LibroDAOImpl implements ILibroDAO {
 
         String sql = "DELETE FROM libros WHERE id = ?";
 
-        System.out.println("🗑️ DAO DELETE: Eliminando libro ID " + id);
-        System.out.println("📝 SQL: " + sql);
+        LOG.debug(() -> "DAO DELETE: Eliminando libro ID " + id);
+        LOG.sql(sql);
 
-        try (Connection conn = DatabaseConfig.getConexion();
+        try (Connection conn = DatabaseConfig.getConexionEscritura();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setLong(1, id);
@@ -161,48 +289,546 @@ public class LibroDAOImpl implements ILibroDAO {
             int filasAfectadas = pstmt.executeUpdate();
 
             if (filasAfectadas > 0) {
-                System.out.println("✅ DELETE exitoso - Libro eliminado");
+                LOG.debug(() -> "DELETE exitoso - Libro eliminado: " + id);
                 return true;
             } else {
-                System.out.println("❌ DELETE - Libro no encontrado");
+                LOG.debug(() -> "DELETE - Libro no encontrado: " + id);
                 return false;
             }
 
         } catch (SQLException e) {
-            System.err.println("❌ Error en DELETE: " + e.getMessage());
+            LOG.error(() -> "Error en DELETE: " + e.getMessage());
             return false;
         }
     }
 
+    /**
+     * DELETE (RETURNING) - Eliminar libro por ID y devolverlo tal como estaba
+     * Una sola sentencia: quien necesita el valor anterior no lo lee antes de borrar
+     */
+    @Override
+    public Optional<Libro> deleteReturning(Long id) {
+        if (id == null || id <= 0) {
+            return Optional.empty();
+        }
+
+        String sql = "DELETE FROM libros WHERE id = ? RETURNING " + COLUMNAS;
+
+        LOG.debug(() -> "DAO DELETE: Eliminando libro ID " + id);
+        LOG.sql(sql);
+
+        try (Connection conn = DatabaseConfig.getConexionEscritura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setLong(1, id);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    LOG.debug(() -> "DELETE exitoso - Libro eliminado: " + id);
+                    return Optional.of(proyectar(rs, ProyeccionLibro.ENTIDAD));
+                }
+            }
+            LOG.debug(() -> "DELETE - Libro no encontrado: " + id);
+            return Optional.empty();
+
+        } catch (SQLException e) {
+            LOG.error(() -> "Error en DELETE: " + e.getMessage());
+            throw new RuntimeException("Error al eliminar libro: " + e.getMessage());
+        }
+    }
+
     /**
      * READ ALL - Obtener todos los libros
      */
     @Override
     public List<Libro> readAll() {
-        String sql = "SELECT id, titulo, autor, ano_publicacion, disponible FROM libros ORDER BY id";
-        List<Libro> libros = new ArrayList<>();
+        return readAll(ProyeccionLibro.ENTIDAD);
+    }
+
+    /**
+     * READ ALL (proyección) - Todos los libros, cada fila convertida directamente por la proyección
+     */
+    @Override
+    public <T> List<T> readAll(ProyeccionLibro<T> proyeccion) {
+        String sql = "SELECT " + COLUMNAS + " FROM libros ORDER BY id";
+        List<T> libros = new ArrayList<>();
 
-        System.out.println("📋 DAO READ ALL: Obteniendo todos los libros");
-        System.out.println("📝 SQL: " + sql);
+        LOG.debug(() -> "DAO READ ALL: Obteniendo todos los libros");
+        LOG.sql(sql);
 
-        try (Connection conn = DatabaseConfig.getConexion();
+        try (Connection conn = DatabaseConfig.getConexionLectura();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                Libro libro = mapearResultSet(rs);
-                libros.add(libro);
+                libros.add(proyectar(rs, proyeccion));
             }
 
-            System.out.println("✅ READ ALL exitoso - " + libros.size() + " libros encontrados");
+            LOG.debug(() -> "READ ALL exitoso - " + libros.size() + " libros encontrados");
 
         } catch (SQLException e) {
-            System.err.println("❌ Error en READ ALL: " + e.getMessage());
+            LOG.error(() -> "Error en READ ALL: " + e.getMessage());
         }
 
         return libros;
     }
 
+    /**
+     * READ ALL (filtro) - Libros que cumplen el filtro
+     * Con IDs consulta por trozos de TAMANO_LOTE dentro de una transacción de lectura:
+     * todos los trozos ven la misma instantánea de la BD
+     */
+    @Override
+    public List<Libro> readAll(FiltroLibros filtro) {
+        List<Libro> libros = new ArrayList<>();
+        if (filtro.esVacio()) {
+            return libros;
+        }
+
+        LOG.debug(() -> "DAO READ ALL: " + filtro);
+
+        try (Connection conn = DatabaseConfig.getConexionLectura()) {
+            conn.setAutoCommit(false);
+            try {
+                for (List<Long> trozo : trozos(filtro)) {
+                    String sql = "SELECT " + COLUMNAS + " FROM libros WHERE "
+                            + condicion(filtro, trozo) + " ORDER BY id";
+                    LOG.sql(sql);
+                    try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                        enlazar(pstmt, 1, filtro, trozo);
+                        try (ResultSet rs = pstmt.executeQuery()) {
+                            while (rs.next()) {
+                                libros.add(proyectar(rs, ProyeccionLibro.ENTIDAD));
+                            }
+                        }
+                    }
+                }
+                conn.commit();
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al leer libros por filtro: " + e.getMessage());
+        }
+
+        return libros;
+    }
+
+    /**
+     * DELETE ALL - Eliminar los libros del filtro en una sola transacción
+     * Un solo commit (un fsync) para miles de filas en lugar de uno por libro
+     */
+    @Override
+    public int deleteAll(FiltroLibros filtro) {
+        LOG.debug(() -> "DAO DELETE ALL: " + filtro);
+        int eliminados = ejecutarPorTrozos("DELETE FROM libros WHERE ", "", filtro, null, null);
+        LOG.debug(() -> "DELETE ALL exitoso - " + eliminados + " libros eliminados");
+        return eliminados;
+    }
+
+    /**
+     * DELETE ALL (RETURNING) - Igual, entregando cada libro eliminado a medida que se borra su trozo
+     * Las filas no se acumulan: el consumidor se ejecuta dentro de la transacción y debe ser rápido
+     */
+    @Override
+    public int deleteAll(FiltroLibros filtro, Consumer<Libro> eliminados) {
+        LOG.debug(() -> "DAO DELETE ALL: " + filtro);
+        int total = ejecutarPorTrozos("DELETE FROM libros WHERE ", " RETURNING " + COLUMNAS, filtro, null, eliminados);
+        LOG.debug(() -> "DELETE ALL exitoso - " + total + " libros eliminados");
+        return total;
+    }
+
+    /**
+     * SET DISPONIBLE - Marcar disponibles o prestados los libros del filtro
+     * Solo toca las filas cuyo valor cambia (y les sube la versión): el recuento es de libros cambiados
+     */
+    @Override
+    public int setDisponible(FiltroLibros filtro, boolean disponible) {
+        LOG.debug(() -> "DAO SET DISPONIBLE=" + disponible + ": " + filtro);
+        int cambiados = ejecutarPorTrozos("UPDATE libros SET disponible = ?, version = version + 1 WHERE ",
+                " AND disponible IS NOT ?", filtro, disponible, null);
+        LOG.debug(() -> "SET DISPONIBLE exitoso - " + cambiados + " libros cambiados");
+        return cambiados;
+    }
+
+    /**
+     * STREAM ALL - Recorrer todos los libros sin cargarlos en memoria
+     */
+    @Override
+    public Stream<Libro> streamAll() {
+        return streamAll(FETCH_SIZE);
+    }
+
+    /**
+     * STREAM ALL - Cursor abierto sobre libros, mapeado fila a fila
+     * La conexión queda prestada hasta cerrar el Stream (usar try-with-resources)
+     */
+    @Override
+    public Stream<Libro> streamAll(int fetchSize) {
+        return abrirCursor(fetchSize, ProyeccionLibro.ENTIDAD);
+    }
+
+    /**
+     * STREAM ALL (proyección) - Igual que streamAll(), proyectando cada fila
+     */
+    @Override
+    public <T> Stream<T> streamAll(ProyeccionLibro<T> proyeccion) {
+        return abrirCursor(FETCH_SIZE, proyeccion);
+    }
+
+    private <T> Stream<T> abrirCursor(int fetchSize, ProyeccionLibro<T> proyeccion) {
+        String sql = "SELECT " + COLUMNAS + " FROM libros ORDER BY id";
+
+        LOG.debug(() -> "DAO STREAM ALL: Recorriendo libros con cursor");
+        LOG.sql(sql);
+
+        Connection conn = null;
+        Statement stmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConfig.getConexionLectura();
+            stmt = conn.createStatement();
+            stmt.setFetchSize(fetchSize);
+            rs = stmt.executeQuery(sql);
+        } catch (SQLException e) {
+            cerrarSilencioso(rs, stmt, conn);
+            throw new RuntimeException("Error al recorrer libros: " + e.getMessage());
+        }
+
+        final Connection connAbierta = conn;
+        final Statement stmtAbierto = stmt;
+        final ResultSet cursor = rs;
+
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> accion) {
+                try {
+                    if (!cursor.next()) {
+                        return false;
+                    }
+                    accion.accept(proyectar(cursor, proyeccion));
+                    return true;
+                } catch (SQLException e) {
+                    throw new RuntimeException("Error leyendo cursor de libros: " + e.getMessage());
+                }
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false)
+                .onClose(() -> cerrarSilencioso(cursor, stmtAbierto, connAbierta));
+    }
+
+    /**
+     * READ PAGE - Paginación por keyset (seek) sobre id, titulo o autor
+     * Continúa desde la última clave vista en lugar de usar OFFSET: la página N cuesta lo mismo que la 1
+     */
+    @Override
+    public Pagina<Libro> readPage(OrdenLibro orden, String token, int tamano) {
+        if (orden == null) {
+            throw new IllegalArgumentException("Orden requerido para paginar");
+        }
+        if (tamano <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser positivo");
+        }
+
+        String columna = orden.getColumna();
+        String[] cursor = token != null ? decodificarToken(orden, token) : null;
+
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNAS + " FROM libros");
+        if (cursor != null) {
+            sql.append(columna == null ? " WHERE id > ?" : " WHERE (" + columna + ", id) > (?, ?)");
+        }
+        sql.append(columna == null ? " ORDER BY id" : " ORDER BY " + columna + ", id");
+        sql.append(" LIMIT ?");
+
+        LOG.debug(() -> "DAO READ PAGE: orden " + orden + ", tamaño " + tamano);
+        LOG.sql(sql.toString());
+
+        List<Libro> libros = new ArrayList<>(tamano + 1);
+
+        try (Connection conn = DatabaseConfig.getConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+
+            int parametro = 1;
+            if (cursor != null) {
+                if (columna != null) {
+                    pstmt.setString(parametro++, cursor[1]);
+                }
+                pstmt.setLong(parametro++, Long.parseLong(cursor[0]));
+            }
+            // Una fila extra para saber si hay página siguiente
+            pstmt.setInt(parametro, tamano + 1);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    libros.add(proyectar(rs, ProyeccionLibro.ENTIDAD));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al paginar libros: " + e.getMessage());
+        }
+
+        String siguiente = null;
+        if (libros.size() > tamano) {
+            libros.remove(tamano);
+            siguiente = codificarToken(orden, libros.get(tamano - 1));
+        }
+
+        LOG.debug(() -> "READ PAGE exitoso - " + libros.size() + " libros");
+        return new Pagina<>(libros, siguiente);
+    }
+
+    /**
+     * SEARCH - Búsqueda de texto completo en titulo y autor (índice FTS5 libros_fts)
+     * Cada palabra de la consulta se busca como prefijo y todas deben aparecer;
+     * los resultados van ordenados por relevancia bm25, pesando más el título
+     */
+    @Override
+    public List<Libro> search(String consulta, int limite) {
+        if (limite <= 0) {
+            throw new IllegalArgumentException("El límite debe ser positivo");
+        }
+
+        String expresion = expresionFts(consulta);
+        if (expresion == null) {
+            return new ArrayList<>();
+        }
+
+        String sql = """
+            SELECT l.id, l.titulo, l.autor, l.ano_publicacion, l.disponible, l.version
+            FROM libros_fts
+            JOIN libros l ON l.id = libros_fts.rowid
+            WHERE libros_fts MATCH ?
+            ORDER BY bm25(libros_fts, 2.0, 1.0)
+            LIMIT ?
+        """;
+
+        LOG.debug(() -> "DAO SEARCH: " + expresion);
+        LOG.sql(sql);
+
+        List<Libro> libros = new ArrayList<>();
+
+        try (Connection conn = DatabaseConfig.getConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, expresion);
+            pstmt.setInt(2, limite);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    libros.add(proyectar(rs, ProyeccionLibro.ENTIDAD));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al buscar libros: " + e.getMessage());
+        }
+
+        LOG.debug(() -> "SEARCH exitoso - " + libros.size() + " libros");
+        return libros;
+    }
+
+    /**
+     * AUTOCOMPLETE - Títulos y autores que empiezan por el prefijo, los de más libros primero
+     * titulo y autor son COLLATE NOCASE, así LIKE 'prefijo%' recorre solo un tramo de
+     * idx_titulo / idx_autor. Sin quitar tildes: para eso está LibroDAOAutocompletado.
+     */
+    @Override
+    public List<Sugerencia> autocomplete(String prefijo, int limite) {
+        if (limite <= 0) {
+            throw new IllegalArgumentException("El límite debe ser positivo");
+        }
+
+        String prefijoLimpio = prefijo == null ? "" : prefijo.trim();
+        if (prefijoLimpio.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        String sql = """
+            SELECT texto, campo, libros FROM (
+                SELECT titulo AS texto, 'TITULO' AS campo, COUNT(*) AS libros
+                FROM libros WHERE titulo LIKE ? ESCAPE '\\' GROUP BY titulo
+                UNION ALL
+                SELECT autor, 'AUTOR', COUNT(*)
+                FROM libros WHERE autor LIKE ? ESCAPE '\\' GROUP BY autor
+            )
+            ORDER BY libros DESC, texto
+            LIMIT ?
+        """;
+
+        LOG.debug(() -> "DAO AUTOCOMPLETE: " + prefijoLimpio);
+        LOG.sql(sql);
+
+        String patron = prefijoLimpio.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        List<Sugerencia> sugerencias = new ArrayList<>();
+
+        try (Connection conn = DatabaseConfig.getConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, patron);
+            pstmt.setString(2, patron);
+            pstmt.setInt(3, limite);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    sugerencias.add(new Sugerencia(rs.getString("texto"),
+                            Sugerencia.Campo.valueOf(rs.getString("campo")), rs.getInt("libros")));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al autocompletar: " + e.getMessage());
+        }
+
+        return sugerencias;
+    }
+
+    /**
+     * COUNT BY AUTHOR - Autores con más libros
+     * Con las tablas de resumen lee resumen_autor; si no, agrupa recorriendo solo idx_autor (autor, disponible)
+     */
+    @Override
+    public List<ConteoAutor> countByAuthor(int limite) {
+        if (limite <= 0) {
+            throw new IllegalArgumentException("El límite debe ser positivo");
+        }
+
+        String sql = DatabaseConfig.isResumenActivo()
+                ? "SELECT autor, libros, disponibles FROM resumen_autor ORDER BY libros DESC, autor LIMIT ?"
+                : """
+                    SELECT autor, COUNT(*) AS libros, SUM(disponible <> 0) AS disponibles
+                    FROM libros GROUP BY autor
+                    ORDER BY libros DESC, autor
+                    LIMIT ?
+                """;
+
+        LOG.sql(sql);
+        List<ConteoAutor> conteos = new ArrayList<>();
+
+        try (Connection conn = DatabaseConfig.getConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, limite);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    conteos.add(new ConteoAutor(rs.getString(1), rs.getLong(2), rs.getLong(3)));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al contar libros por autor: " + e.getMessage());
+        }
+
+        return conteos;
+    }
+
+    /**
+     * COUNT BY YEAR - Histograma por año de publicación
+     * Sin resumen recorre el tramo [desde, hasta] de idx_ano_publicacion, ya ordenado por año
+     */
+    @Override
+    public List<ConteoAno> countByYear(int desde, int hasta) {
+        if (desde > hasta) {
+            throw new IllegalArgumentException("El año inicial no puede ser mayor que el final");
+        }
+
+        String sql = DatabaseConfig.isResumenActivo()
+                ? "SELECT ano, libros, disponibles FROM resumen_ano WHERE ano BETWEEN ? AND ? ORDER BY ano"
+                : """
+                    SELECT ano_publicacion, COUNT(*), SUM(disponible <> 0)
+                    FROM libros WHERE ano_publicacion BETWEEN ? AND ?
+                    GROUP BY ano_publicacion
+                    ORDER BY ano_publicacion
+                """;
+
+        LOG.sql(sql);
+        List<ConteoAno> conteos = new ArrayList<>();
+
+        try (Connection conn = DatabaseConfig.getConexionLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, desde);
+            pstmt.setInt(2, hasta);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    conteos.add(new ConteoAno(rs.getInt(1), rs.getLong(2), rs.getLong(3)));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al contar libros por año: " + e.getMessage());
+        }
+
+        return conteos;
+    }
+
+    /**
+     * COUNT AVAILABILITY - Disponibles frente a prestados
+     * Con resumen suma las filas de resumen_ano (una por año); sin él, SQLite recorre el índice más pequeño que cubre disponible
+     */
+    @Override
+    public ResumenDisponibilidad countAvailability() {
+        String sql = DatabaseConfig.isResumenActivo()
+                ? "SELECT COALESCE(SUM(libros), 0), COALESCE(SUM(disponibles), 0) FROM resumen_ano"
+                : "SELECT COUNT(*), COALESCE(SUM(disponible <> 0), 0) FROM libros";
+
+        LOG.sql(sql);
+
+        try (Connection conn = DatabaseConfig.getConexionLectura();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            rs.next();
+            return new ResumenDisponibilidad(rs.getLong(1), rs.getLong(2));
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al contar disponibilidad: " + e.getMessage());
+        }
+    }
+
+    /**
+     * COUNT AVAILABILITY (filtro) - Total y disponibles de los libros del filtro
+     * Con IDs suma un COUNT por trozo dentro de una transacción de lectura
+     */
+    @Override
+    public ResumenDisponibilidad countAvailability(FiltroLibros filtro) {
+        if (filtro.esVacio()) {
+            return new ResumenDisponibilidad(0, 0);
+        }
+
+        long total = 0;
+        long disponibles = 0;
+        try (Connection conn = DatabaseConfig.getConexionLectura()) {
+            conn.setAutoCommit(false);
+            try {
+                for (List<Long> trozo : trozos(filtro)) {
+                    String sql = "SELECT COUNT(*), COALESCE(SUM(disponible <> 0), 0) FROM libros WHERE "
+                            + condicion(filtro, trozo);
+                    LOG.sql(sql);
+                    try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                        enlazar(pstmt, 1, filtro, trozo);
+                        try (ResultSet rs = pstmt.executeQuery()) {
+                            rs.next();
+                            total += rs.getLong(1);
+                            disponibles += rs.getLong(2);
+                        }
+                    }
+                }
+                conn.commit();
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al contar libros por filtro: " + e.getMessage());
+        }
+
+        return new ResumenDisponibilidad(total, disponibles);
+    }
+
     /**
      * EXISTS - Verificar si existe libro con título y autor
      */
@@ -211,9 +837,10 @@ public class LibroDAOImpl implements ILibroDAO {
         String tituloSanitizado = sanitizarTexto(titulo);
         String autorSanitizado = sanitizarTexto(autor);
 
-        String sql = "SELECT 1 FROM libros WHERE LOWER(TRIM(titulo)) = LOWER(TRIM(?)) AND LOWER(TRIM(autor)) = LOWER(TRIM(?))";
+        // Comparación NOCASE sobre valores ya sanitizados: usa el índice de UNIQUE(titulo, autor)
+        String sql = "SELECT 1 FROM libros WHERE titulo = ? COLLATE NOCASE AND autor = ? COLLATE NOCASE LIMIT 1";
 
-        try (Connection conn = DatabaseConfig.getConexion();
+        try (Connection conn = DatabaseConfig.getConexionLectura();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, tituloSanitizado);
@@ -222,7 +849,7 @@ public class LibroDAOImpl implements ILibroDAO {
             try (ResultSet rs = pstmt.executeQuery()) {
                 boolean existe = rs.next();
                 if (existe) {
-                    System.out.println("DUPLICADO DETECTADO: " + tituloSanitizado + " - " + autorSanitizado);
+                    LOG.debug(() -> "DUPLICADO DETECTADO: " + tituloSanitizado + " - " + autorSanitizado);
                 }
                 return existe;
             }
@@ -232,28 +859,423 @@ public class LibroDAOImpl implements ILibroDAO {
         }
     }
 
+    /**
+     * CREATE ALL - Insertar muchos libros en una sola transacción
+     */
+    @Override
+    public ResultadoLote createAll(Collection<Libro> libros) {
+        return createAll(libros, TAMANO_LOTE);
+    }
+
+    /**
+     * CREATE ALL - Inserción masiva con addBatch/executeBatch
+     * Detecta duplicados (contra la BD y dentro del propio lote) con una consulta por bloque
+     * Si algo falla se revierte toda la transacción y las filas pendientes quedan en ERROR
+     */
+    @Override
+    public ResultadoLote createAll(Collection<Libro> libros, int tamanoLote) {
+        if (tamanoLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser positivo");
+        }
+
+        List<ResultadoLote.Fila> filas = new ArrayList<>(libros.size());
+        List<Libro> entrada = new ArrayList<>(libros);
+        if (entrada.isEmpty()) {
+            return new ResultadoLote(filas);
+        }
+
+        // Sanitizar una sola vez
+        String[] titulos = new String[entrada.size()];
+        String[] autores = new String[entrada.size()];
+        for (int i = 0; i < entrada.size(); i++) {
+            titulos[i] = sanitizarTexto(entrada.get(i).getTitulo());
+            autores[i] = sanitizarTexto(entrada.get(i).getAutor());
+            filas.add(new ResultadoLote.Fila(i, ResultadoLote.Estado.INSERTADO, null, null));
+        }
+
+        String sqlInsert = "INSERT INTO libros (titulo, autor, ano_publicacion, disponible) VALUES (?, ?, ?, ?)";
+        Set<String> clavesVistas = new HashSet<>();
+
+        try (Connection conn = DatabaseConfig.getConexionEscritura()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sqlInsert);
+                 Statement stmtId = conn.createStatement()) {
+
+                for (int inicio = 0; inicio < entrada.size(); inicio += tamanoLote) {
+                    int fin = Math.min(inicio + tamanoLote, entrada.size());
+                    Set<String> existentes = buscarExistentes(conn, titulos, autores, inicio, fin);
+
+                    List<Integer> pendientes = new ArrayList<>(fin - inicio);
+                    for (int i = inicio; i < fin; i++) {
+                        String clave = claveDuplicado(titulos[i], autores[i]);
+                        if (existentes.contains(clave) || !clavesVistas.add(clave)) {
+                            filas.get(i).marcar(ResultadoLote.Estado.DUPLICADO, null,
+                                    "El libro '" + titulos[i] + "' de " + autores[i] + " ya existe");
+                            continue;
+                        }
+
+                        Libro libro = entrada.get(i);
+                        pstmt.setString(1, titulos[i]);
+                        pstmt.setString(2, autores[i]);
+                        pstmt.setInt(3, libro.getAnoPublicacion());
+                        pstmt.setBoolean(4, libro.getDisponible() != null ? libro.getDisponible() : true);
+                        pstmt.addBatch();
+                        pendientes.add(i);
+                    }
+
+                    if (pendientes.isEmpty()) {
+                        continue;
+                    }
+
+                    pstmt.executeBatch();
+
+                    // Dentro de la transacción los IDs AUTOINCREMENT del bloque son consecutivos
+                    long ultimoId;
+                    try (ResultSet rs = stmtId.executeQuery("SELECT last_insert_rowid()")) {
+                        rs.next();
+                        ultimoId = rs.getLong(1);
+                    }
+
+                    long id = ultimoId - pendientes.size() + 1;
+                    for (int i : pendientes) {
+                        filas.get(i).marcar(ResultadoLote.Estado.INSERTADO, id++, null);
+                    }
+                }
+
+                conn.commit();
+
+                for (ResultadoLote.Fila fila : filas) {
+                    if (fila.getEstado() == ResultadoLote.Estado.INSERTADO) {
+                        Libro libro = entrada.get(fila.getIndice());
+                        libro.setId(fila.getId());
+                        libro.setTitulo(titulos[fila.getIndice()]);
+                        libro.setAutor(autores[fila.getIndice()]);
+                        libro.setVersion(1L);
+                    }
+                }
+
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                for (ResultadoLote.Fila fila : filas) {
+                    if (fila.getEstado() == ResultadoLote.Estado.INSERTADO) {
+                        fila.marcar(ResultadoLote.Estado.ERROR, null, e.getMessage());
+                    }
+                }
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al crear libros en lote: " + e.getMessage());
+        }
+
+        ResultadoLote resultado = new ResultadoLote(filas);
+        LOG.debug(() -> "Lote procesado: " + resultado);
+        return resultado;
+    }
+
     // ========================================================================
     // MÉTODOS AUXILIARES
     // ========================================================================
 
-    private Libro mapearResultSet(ResultSet rs) throws SQLException {
-        Libro libro = new Libro();
-        libro.setId(rs.getLong("id"));
-        libro.setTitulo(rs.getString("titulo"));
-        libro.setAutor(rs.getString("autor"));
-        libro.setAnoPublicacion(rs.getInt("ano_publicacion"));
-        libro.setDisponible(rs.getBoolean("disponible"));
-        return libro;
+    /**
+     * Fila actual (columnas en el orden de COLUMNAS) convertida por la proyección
+     * Lectura por posición: el driver no busca el nombre de cada columna en cada fila
+     */
+    private static <T> T proyectar(ResultSet rs, ProyeccionLibro<T> proyeccion) throws SQLException {
+        return proyeccion.proyectar(rs.getLong(1), leerTexto(rs, 2), leerTexto(rs, 3),
+                rs.getInt(4), rs.getBoolean(5), rs.getLong(6));
     }
 
-    private String sanitizarTexto(String texto) {
-        if (texto == null || texto.trim().isEmpty()) {
-            return "";
+    /**
+     * Texto de una columna decodificado directamente de sus bytes UTF-8
+     * getString() del driver copia el texto a un buffer intermedio antes de crear el String;
+     * getBytes() entrega los bytes tal cual (MapeoBenchmark.textoGetString / textoGetBytes).
+     * Depende de que la BD esté en UTF-8: DatabaseConfig lo comprueba al arrancar
+     */
+    private static String leerTexto(ResultSet rs, int columna) throws SQLException {
+        byte[] utf8 = rs.getBytes(columna);
+        return utf8 != null ? new String(utf8, StandardCharsets.UTF_8) : null;
+    }
+
+    // Violación de UNIQUE (titulo, autor), la única restricción única que admite cambios
+    private static boolean esDuplicado(SQLException e) {
+        return e instanceof SQLiteException sqlite && sqlite.getResultCode() == SQLiteErrorCode.SQLITE_CONSTRAINT_UNIQUE;
+    }
+
+    private static Libro leerLibro(Connection conn, long id) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT " + COLUMNAS + " FROM libros WHERE id = ?")) {
+            pstmt.setLong(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? proyectar(rs, ProyeccionLibro.ENTIDAD) : null;
+            }
+        }
+    }
+
+    private static Long leerVersion(Connection conn, long id) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT version FROM libros WHERE id = ?")) {
+            pstmt.setLong(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Expresión MATCH a partir del texto del usuario: "palabra"* por cada palabra
+     * Solo letras y dígitos llegan a FTS5, así la sintaxis de consulta (OR, NEAR, comillas,
+     * paréntesis...) nunca se interpreta. null si no queda ninguna palabra.
+     */
+    private static String expresionFts(String consulta) {
+        if (consulta == null) {
+            return null;
         }
 
-        return texto.trim()
-                .replaceAll("\\s+", " ")              // Espacios múltiples → uno solo
-                .replaceAll("[<>\"'&]", "")           // Caracteres peligrosos
-                .replaceAll("(?i)(script|select|insert|update|delete|drop|create|alter)", ""); // SQL keywords
+        StringBuilder expresion = new StringBuilder();
+        int palabras = 0;
+        int i = 0;
+        while (i < consulta.length() && palabras < MAX_PALABRAS_BUSQUEDA) {
+            while (i < consulta.length() && !Character.isLetterOrDigit(consulta.charAt(i))) {
+                i++;
+            }
+            int inicio = i;
+            while (i < consulta.length() && Character.isLetterOrDigit(consulta.charAt(i))) {
+                i++;
+            }
+            if (i > inicio) {
+                if (palabras++ > 0) {
+                    expresion.append(' ');
+                }
+                expresion.append('"').append(consulta, inicio, i).append("\"*");
+            }
+        }
+        return palabras == 0 ? null : expresion.toString();
+    }
+
+    /**
+     * Token opaco: orden, último id y último valor de la columna de orden, en Base64 URL-safe
+     */
+    private String codificarToken(OrdenLibro orden, Libro ultimo) {
+        String valor = "";
+        if (orden == OrdenLibro.TITULO) {
+            valor = ultimo.getTitulo();
+        } else if (orden == OrdenLibro.AUTOR) {
+            valor = ultimo.getAutor();
+        }
+        String crudo = orden.name() + "|" + ultimo.getId() + "|" + valor;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(crudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Devuelve {ultimoId, ultimoValor} o lanza IllegalArgumentException si el token no es válido
+     */
+    private String[] decodificarToken(OrdenLibro orden, String token) {
+        try {
+            String crudo = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] partes = crudo.split("\\|", 3);
+            if (partes.length != 3 || !partes[0].equals(orden.name())) {
+                throw new IllegalArgumentException("Token de página no corresponde al orden " + orden);
+            }
+            Long.parseLong(partes[1]);
+            return new String[]{partes[1], partes[2]};
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Token de página inválido: " + e.getMessage(), e);
+        }
+    }
+
+    private void cerrarSilencioso(AutoCloseable... recursos) {
+        for (AutoCloseable recurso : recursos) {
+            if (recurso == null) {
+                continue;
+            }
+            try {
+                recurso.close();
+            } catch (Exception e) {
+                LOG.warn(() -> "Error cerrando recurso: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Claves (título, autor) del bloque que ya existen en la BD, en una sola consulta
+     */
+    private Set<String> buscarExistentes(Connection conn, String[] titulos, String[] autores,
+                                         int inicio, int fin) throws SQLException {
+        // La comparación usa el COLLATE NOCASE de las columnas y el índice de UNIQUE(titulo, autor)
+        StringBuilder sql = new StringBuilder(
+                "SELECT titulo, autor FROM libros WHERE (titulo, autor) IN (VALUES ");
+        for (int i = inicio; i < fin; i++) {
+            sql.append(i == inicio ? "" : ", ").append("(?, ?)");
+        }
+        sql.append(")");
+
+        Set<String> existentes = new HashSet<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            int parametro = 1;
+            for (int i = inicio; i < fin; i++) {
+                pstmt.setString(parametro++, titulos[i]);
+                pstmt.setString(parametro++, autores[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    existentes.add(claveDuplicado(rs.getString(1), rs.getString(2)));
+                }
+            }
+        }
+        return existentes;
+    }
+
+    /**
+     * Ejecutar una sentencia masiva sobre el filtro, trozo a trozo, en una transacción del carril de escritura
+     * disponible != null se enlaza antes y después de la condición (SET ... WHERE ... AND ...)
+     * El PreparedStatement se reutiliza mientras el trozo tenga el mismo tamaño (todos menos el último)
+     * Con filas != null el sufijo lleva RETURNING COLUMNAS y cada fila afectada se le entrega proyectada
+     */
+    private int ejecutarPorTrozos(String prefijo, String sufijo, FiltroLibros filtro, Boolean disponible,
+                                  Consumer<Libro> filas) {
+        if (filtro.esVacio()) {
+            return 0;
+        }
+
+        try (Connection conn = DatabaseConfig.getConexionEscritura()) {
+            conn.setAutoCommit(false);
+
+            PreparedStatement pstmt = null;
+            int tamanoPreparado = -1;
+            try {
+                int afectadas = 0;
+                for (List<Long> trozo : trozos(filtro)) {
+                    int tamano = trozo == null ? 0 : trozo.size();
+                    if (tamano != tamanoPreparado) {
+                        if (pstmt != null) {
+                            pstmt.close();
+                        }
+                        String sql = prefijo + condicion(filtro, trozo) + sufijo;
+                        LOG.sql(sql);
+                        pstmt = conn.prepareStatement(sql);
+                        tamanoPreparado = tamano;
+                    }
+
+                    int parametro = 1;
+                    if (disponible != null) {
+                        pstmt.setBoolean(parametro++, disponible);
+                    }
+                    parametro = enlazar(pstmt, parametro, filtro, trozo);
+                    if (disponible != null) {
+                        pstmt.setBoolean(parametro, disponible);
+                    }
+                    if (filas == null) {
+                        afectadas += pstmt.executeUpdate();
+                    } else {
+                        try (ResultSet rs = pstmt.executeQuery()) {
+                            while (rs.next()) {
+                                filas.accept(proyectar(rs, ProyeccionLibro.ENTIDAD));
+                                afectadas++;
+                            }
+                        }
+                    }
+                }
+
+                conn.commit();
+                return afectadas;
+
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                if (pstmt != null) {
+                    pstmt.close();
+                }
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            LOG.error(() -> "Error en operación masiva " + filtro + ": " + e.getMessage());
+            throw new RuntimeException("Error en operación masiva: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Trozos de IDs de como mucho TAMANO_LOTE; un único trozo null si el filtro no lleva IDs
+     */
+    private static List<List<Long>> trozos(FiltroLibros filtro) {
+        List<Long> ids = filtro.getIds();
+        if (ids == null) {
+            return Collections.singletonList(null);
+        }
+        List<List<Long>> trozos = new ArrayList<>();
+        for (int inicio = 0; inicio < ids.size(); inicio += TAMANO_LOTE) {
+            trozos.add(ids.subList(inicio, Math.min(inicio + TAMANO_LOTE, ids.size())));
+        }
+        return trozos;
+    }
+
+    /**
+     * WHERE del filtro: autor = ? usa idx_autor (NOCASE) y el rango de años idx_ano_publicacion
+     */
+    private static String condicion(FiltroLibros filtro, List<Long> trozo) {
+        StringBuilder sql = new StringBuilder();
+        if (trozo != null) {
+            sql.append("id IN (");
+            for (int i = 0; i < trozo.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(")");
+        }
+        if (filtro.getAutor() != null) {
+            sql.append(sql.length() > 0 ? " AND " : "").append("autor = ?");
+        }
+        if (filtro.getAnoDesde() != null) {
+            sql.append(sql.length() > 0 ? " AND " : "").append("ano_publicacion >= ?");
+        }
+        if (filtro.getAnoHasta() != null) {
+            sql.append(sql.length() > 0 ? " AND " : "").append("ano_publicacion <= ?");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Enlazar los parámetros de condicion(); devuelve el siguiente índice libre
+     */
+    private int enlazar(PreparedStatement pstmt, int parametro, FiltroLibros filtro, List<Long> trozo)
+            throws SQLException {
+        if (trozo != null) {
+            for (Long id : trozo) {
+                pstmt.setLong(parametro++, id);
+            }
+        }
+        if (filtro.getAutor() != null) {
+            pstmt.setString(parametro++, sanitizarTexto(filtro.getAutor()));
+        }
+        if (filtro.getAnoDesde() != null) {
+            pstmt.setInt(parametro++, filtro.getAnoDesde());
+        }
+        if (filtro.getAnoHasta() != null) {
+            pstmt.setInt(parametro++, filtro.getAnoHasta());
+        }
+        return parametro;
+    }
+
+    /**
+     * Clave de duplicado equivalente a COLLATE NOCASE de SQLite (minúsculas solo ASCII)
+     */
+    private String claveDuplicado(String titulo, String autor) {
+        return minusculasAscii(titulo) + '\u0000' + minusculasAscii(autor);
+    }
+
+    private String minusculasAscii(String texto) {
+        char[] chars = texto.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] >= 'A' && chars[i] <= 'Z') {
+                chars[i] = (char) (chars[i] + ('a' - 'A'));
+            }
+        }
+        return new String(chars);
+    }
+
+    private String sanitizarTexto(String texto) {
+        // Una sola pasada, sin regex: misma salida que trim + replaceAll de \s+, [<>"'&] y palabras SQL
+        return NormalizadorTexto.sanitizar(texto);
     }
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.metricas.MetricasOperacion;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.metricas.RegistroMetricas;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ConteoAno;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ConteoAutor;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Pagina;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ResumenDisponibilidad;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Sugerencia;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.entity.Libro;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// LibroDAOMetricas - Decorador que mide cada operación del DAO
+// Registra conteo, errores (excepciones) y latencia en RegistroMetricas bajo "dao.<operación>"
+public class LibroDAOMetricas extends LibroDAODecorador {
+
+    private final MetricasOperacion create = RegistroMetricas.operacion("dao.create");
+    private final MetricasOperacion read = RegistroMetricas.operacion("dao.read");
+    private final MetricasOperacion update = RegistroMetricas.operacion("dao.update");
+    private final MetricasOperacion delete = RegistroMetricas.operacion("dao.delete");
+    private final MetricasOperacion readAll = RegistroMetricas.operacion("dao.readAll");
+    private final MetricasOperacion readAllFiltro = RegistroMetricas.operacion("dao.readAllFiltro");
+    private final MetricasOperacion deleteAll = RegistroMetricas.operacion("dao.deleteAll");
+    private final MetricasOperacion setDisponible = RegistroMetricas.operacion("dao.setDisponible");
+    private final MetricasOperacion streamAll = RegistroMetricas.operacion("dao.streamAll");
+    private final MetricasOperacion readPage = RegistroMetricas.operacion("dao.readPage");
+    private final MetricasOperacion search = RegistroMetricas.operacion("dao.search");
+    private final MetricasOperacion autocomplete = RegistroMetricas.operacion("dao.autocomplete");
+    private final MetricasOperacion countByAuthor = RegistroMetricas.operacion("dao.countByAuthor");
+    private final MetricasOperacion countByYear = RegistroMetricas.operacion("dao.countByYear");
+    private final MetricasOperacion countAvailability = RegistroMetricas.operacion("dao.countAvailability");
+    private final MetricasOperacion countAvailabilityFiltro = RegistroMetricas.operacion("dao.countAvailabilityFiltro");
+    private final MetricasOperacion exists = RegistroMetricas.operacion("dao.exists");
+    private final MetricasOperacion createAll = RegistroMetricas.operacion("dao.createAll");
+
+    public LibroDAOMetricas(ILibroDAO delegado) {
+        super(delegado);
+    }
+
+    @Override
+    public Libro create(Libro libro) {
+        return medir(create, () -> delegado.create(libro));
+    }
+
+    @Override
+    public Optional<Libro> read(Long id) {
+        return medir(read, () -> delegado.read(id));
+    }
+
+    // Un FALLO devuelto cuenta como error igual que una excepción
+    @Override
+    public Resultado<Libro> find(Long id) {
+        long inicio = System.nanoTime();
+        Resultado<Libro> resultado = null;
+        try {
+            resultado = delegado.find(id);
+            return resultado;
+        } finally {
+            read.registrar(inicio, resultado == null || resultado.getEstado() == Resultado.Estado.FALLO);
+        }
+    }
+
+    @Override
+    public Libro update(Libro libro) {
+        return medir(update, () -> delegado.update(libro));
+    }
+
+    @Override
+    public Libro update(Libro libro, BiConsumer<Libro, Libro> cambio) {
+        return medir(update, () -> delegado.update(libro, cambio));
+    }
+
+    @Override
+    public boolean delete(Long id) {
+        return medir(delete, () -> delegado.delete(id));
+    }
+
+    @Override
+    public Optional<Libro> deleteReturning(Long id) {
+        return medir(delete, () -> delegado.deleteReturning(id));
+    }
+
+    @Override
+    public List<Libro> readAll() {
+        return medir(readAll, delegado::readAll);
+    }
+
+    @Override
+    public <T> List<T> readAll(ProyeccionLibro<T> proyeccion) {
+        return medir(readAll, () -> delegado.readAll(proyeccion));
+    }
+
+    // En los streams se mide la apertura del cursor, no el recorrido (lo controla el llamador)
+    @Override
+    public Stream<Libro> streamAll() {
+        return medir(streamAll, () -> delegado.streamAll());
+    }
+
+    @Override
+    public <T> Stream<T> streamAll(ProyeccionLibro<T> proyeccion) {
+        return medir(streamAll, () -> delegado.streamAll(proyeccion));
+    }
+
+    @Override
+    public List<Libro> readAll(FiltroLibros filtro) {
+        return medir(readAllFiltro, () -> delegado.readAll(filtro));
+    }
+
+    @Override
+    public int deleteAll(FiltroLibros filtro) {
+        return medir(deleteAll, () -> delegado.deleteAll(filtro));
+    }
+
+    @Override
+    public int deleteAll(FiltroLibros filtro, Consumer<Libro> eliminados) {
+        return medir(deleteAll, () -> delegado.deleteAll(filtro, eliminados));
+    }
+
+    @Override
+    public int setDisponible(FiltroLibros filtro, boolean disponible) {
+        return medir(setDisponible, () -> delegado.setDisponible(filtro, disponible));
+    }
+
+    @Override
+    public Stream<Libro> streamAll(int fetchSize) {
+        return medir(streamAll, () -> delegado.streamAll(fetchSize));
+    }
+
+    @Override
+    public Pagina<Libro> readPage(OrdenLibro orden, String token, int tamano) {
+        return medir(readPage, () -> delegado.readPage(orden, token, tamano));
+    }
+
+    @Override
+    public List<Libro> search(String consulta, int limite) {
+        return medir(search, () -> delegado.search(consulta, limite));
+    }
+
+    @Override
+    public List<Sugerencia> autocomplete(String prefijo, int limite) {
+        return medir(autocomplete, () -> delegado.autocomplete(prefijo, limite));
+    }
+
+    @Override
+    public List<ConteoAutor> countByAuthor(int limite) {
+        return medir(countByAuthor, () -> delegado.countByAuthor(limite));
+    }
+
+    @Override
+    public List<ConteoAno> countByYear(int desde, int hasta) {
+        return medir(countByYear, () -> delegado.countByYear(desde, hasta));
+    }
+
+    @Override
+    public ResumenDisponibilidad countAvailability() {
+        return medir(countAvailability, () -> delegado.countAvailability());
+    }
+
+    @Override
+    public ResumenDisponibilidad countAvailability(FiltroLibros filtro) {
+        return medir(countAvailabilityFiltro, () -> delegado.countAvailability(filtro));
+    }
+
+    @Override
+    public boolean exists(String titulo, String autor) {
+        return medir(exists, () -> delegado.exists(titulo, autor));
+    }
+
+    @Override
+    public ResultadoLote createAll(Collection<Libro> libros) {
+        return medir(createAll, () -> delegado.createAll(libros));
+    }
+
+    @Override
+    public ResultadoLote createAll(Collection<Libro> libros, int tamanoLote) {
+        return medir(createAll, () -> delegado.createAll(libros, tamanoLote));
+    }
+
+    private static <T> T medir(MetricasOperacion metricas, Supplier<T> operacion) {
+        long inicio = System.nanoTime();
+        boolean error = true;
+        try {
+            T resultado = operacion.get();
+            error = false;
+            return resultado;
+        } finally {
+            metricas.registrar(inicio, error);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao;
+
+/**
+ * LibroDuplicadoException - Ya hay un libro con el mismo título y autor (sin distinguir mayúsculas)
+ * Equivale a HTTP 409 Conflict: lo detecta el propio INSERT, sin consulta previa
+ */
+public class LibroDuplicadoException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String titulo;
+    private final String autor;
+
+    public LibroDuplicadoException(String titulo, String autor) {
+        // Sin traza: es un resultado esperado de la validación, no un fallo
+        super("El libro '" + titulo + "' de " + autor + " ya existe", null, false, false);
+        this.titulo = titulo;
+        this.autor = autor;
+    }
+
+    public LibroDuplicadoException(String titulo, String autor, Throwable causa) {
+        // Con la violación de UNIQUE que lo detectó (p. ej. un UPDATE que choca con otro libro)
+        super("El libro '" + titulo + "' de " + autor + " ya existe", causa, false, false);
+        this.titulo = titulo;
+        this.autor = autor;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public String getAutor() {
+        return autor;
+    }
+}
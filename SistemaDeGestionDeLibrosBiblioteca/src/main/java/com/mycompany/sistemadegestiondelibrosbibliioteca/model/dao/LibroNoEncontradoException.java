@@ -0,0 +1,19 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao;
+
+/**
+ * LibroNoEncontradoException - No hay ningún libro con ese ID
+ * Equivale a HTTP 404 Not Found; la usan las APIs que señalan con excepciones (update, obtenerLibroPorId)
+ */
+public class LibroNoEncontradoException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LibroNoEncontradoException(Long id) {
+        this("Libro no encontrado con ID: " + id);
+    }
+
+    public LibroNoEncontradoException(String mensaje) {
+        // Sin traza: es un resultado esperado, no un fallo
+        super(mensaje, null, false, false);
+    }
+}
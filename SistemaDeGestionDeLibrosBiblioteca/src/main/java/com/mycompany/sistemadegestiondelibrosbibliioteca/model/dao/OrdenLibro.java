@@ -0,0 +1,20 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao;
+
+// OrdenLibro - Criterios de orden soportados por la paginación por keyset
+// Cada uno se apoya en un índice: la PK o idx_titulo / idx_autor (que incluyen el id)
+public enum OrdenLibro {
+    ID(null),
+    TITULO("titulo"),
+    AUTOR("autor");
+
+    private final String columna;
+
+    OrdenLibro(String columna) {
+        this.columna = columna;
+    }
+
+    // Columna de orden previa al id, null cuando se ordena solo por id
+    public String getColumna() {
+        return columna;
+    }
+}
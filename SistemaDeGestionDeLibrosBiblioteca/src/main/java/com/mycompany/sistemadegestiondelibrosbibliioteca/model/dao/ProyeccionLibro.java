@@ -0,0 +1,14 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.entity.Libro;
+
+// ProyeccionLibro - Construye el objeto de cada fila directamente con los valores leídos
+// Recibe las columnas como primitivos: quien solo necesita un DTO no pasa por la entidad Libro
+@FunctionalInterface
+public interface ProyeccionLibro<T> {
+
+    // Entidad completa: la proyección que usan read, readAll y streamAll
+    ProyeccionLibro<Libro> ENTIDAD = Libro::new;
+
+    T proyectar(long id, String titulo, String autor, int anoPublicacion, boolean disponible, long version);
+}
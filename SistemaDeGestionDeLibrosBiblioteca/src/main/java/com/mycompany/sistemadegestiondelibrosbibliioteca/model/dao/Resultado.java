@@ -0,0 +1,135 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao;
+
+import java.util.function.Function;
+
+/**
+ * Resultado - Desenlace tipado de una operación: encontrado, no encontrado, inválido, conflicto o fallo
+ * Los desenlaces esperados (un ID que no existe, un dato mal formado) viajan como valor desde
+ * ILibroDAO hasta el controlador: no se crean excepciones ni se buscan códigos en los mensajes.
+ * Solo FALLO, o lo que se clasifica con desdeError, lleva la excepción que lo causó.
+ */
+public final class Resultado<T> {
+
+    public enum Estado {
+        ENCONTRADO(200),
+        NO_ENCONTRADO(404),
+        INVALIDO(400),
+        CONFLICTO(409),
+        FALLO(500);
+
+        private final int codigoHttp;
+
+        Estado(int codigoHttp) {
+            this.codigoHttp = codigoHttp;
+        }
+
+        public int getCodigoHttp() {
+            return codigoHttp;
+        }
+    }
+
+    // El caso frecuente de no encontrado no necesita datos: una sola instancia compartida
+    private static final Resultado<?> NO_ENCONTRADO =
+            new Resultado<>(Estado.NO_ENCONTRADO, null, "Libro no encontrado", null);
+
+    private final Estado estado;
+    private final T valor;
+    private final String mensaje;
+    private final RuntimeException causa;
+
+    private Resultado(Estado estado, T valor, String mensaje, RuntimeException causa) {
+        this.estado = estado;
+        this.valor = valor;
+        this.mensaje = mensaje;
+        this.causa = causa;
+    }
+
+    public static <T> Resultado<T> encontrado(T valor) {
+        return new Resultado<>(Estado.ENCONTRADO, valor, null, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Resultado<T> noEncontrado() {
+        return (Resultado<T>) NO_ENCONTRADO;
+    }
+
+    public static <T> Resultado<T> invalido(String mensaje) {
+        return new Resultado<>(Estado.INVALIDO, null, mensaje, null);
+    }
+
+    public static <T> Resultado<T> conflicto(String mensaje) {
+        return new Resultado<>(Estado.CONFLICTO, null, mensaje, null);
+    }
+
+    public static <T> Resultado<T> fallo(RuntimeException causa) {
+        return new Resultado<>(Estado.FALLO, null, causa.getMessage(), causa);
+    }
+
+    /**
+     * Clasificar una excepción que ya se lanzó (APIs que todavía señalan con excepciones)
+     */
+    public static <T> Resultado<T> desdeError(Throwable error) {
+        if (error instanceof IllegalArgumentException) {
+            return invalido(error.getMessage());
+        }
+        if (error instanceof LibroNoEncontradoException) {
+            return new Resultado<>(Estado.NO_ENCONTRADO, null, error.getMessage(), null);
+        }
+        if (error instanceof ConflictoVersionException || error instanceof LibroDuplicadoException) {
+            return new Resultado<>(Estado.CONFLICTO, null, error.getMessage(), (RuntimeException) error);
+        }
+        return fallo(error instanceof RuntimeException e ? e : new RuntimeException(error));
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    public boolean isEncontrado() {
+        return estado == Estado.ENCONTRADO;
+    }
+
+    // Valor si se encontró, null en cualquier otro caso
+    public T getValor() {
+        return valor;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    // Excepción original: en FALLO siempre, en el resto solo si vino de desdeError
+    public RuntimeException getCausa() {
+        return causa;
+    }
+
+    public int getCodigoHttp() {
+        return estado.getCodigoHttp();
+    }
+
+    /**
+     * Transformar el valor encontrado; el resto de desenlaces pasan tal cual, sin copiarse
+     */
+    @SuppressWarnings("unchecked")
+    public <U> Resultado<U> map(Function<? super T, ? extends U> funcion) {
+        return estado == Estado.ENCONTRADO ? encontrado(funcion.apply(valor)) : (Resultado<U>) this;
+    }
+
+    /**
+     * Valor encontrado o la excepción equivalente, para quien sigue usando la API con excepciones
+     */
+    public T obtener() {
+        return switch (estado) {
+            case ENCONTRADO -> valor;
+            case NO_ENCONTRADO -> throw new LibroNoEncontradoException(mensaje);
+            case INVALIDO -> throw new IllegalArgumentException(mensaje);
+            case CONFLICTO -> throw causa != null ? causa : new IllegalStateException(mensaje);
+            case FALLO -> throw causa;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "Resultado{" + estado + (estado == Estado.ENCONTRADO ? " " + valor : " '" + mensaje + "'") + '}';
+    }
+}
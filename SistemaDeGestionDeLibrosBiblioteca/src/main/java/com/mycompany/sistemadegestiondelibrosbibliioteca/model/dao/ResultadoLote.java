@@ -0,0 +1,122 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ResultadoLote - Informe de una inserción masiva
+ * Una fila por libro recibido, en el mismo orden de la colección de entrada
+ */
+public class ResultadoLote {
+
+    // Estado final de cada libro del lote
+    public enum Estado {
+        INSERTADO,
+        DUPLICADO,
+        ERROR
+    }
+
+    /**
+     * Resultado individual de un libro del lote
+     */
+    public static class Fila {
+        private final int indice;
+        private Estado estado;
+        private Long id;
+        private String mensaje;
+
+        public Fila(int indice, Estado estado, Long id, String mensaje) {
+            this.indice = indice;
+            this.estado = estado;
+            this.id = id;
+            this.mensaje = mensaje;
+        }
+
+        public int getIndice() {
+            return indice;
+        }
+
+        public Estado getEstado() {
+            return estado;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getMensaje() {
+            return mensaje;
+        }
+
+        void marcar(Estado estado, Long id, String mensaje) {
+            this.estado = estado;
+            this.id = id;
+            this.mensaje = mensaje;
+        }
+
+        @Override
+        public String toString() {
+            return "Fila{" +
+                    "indice=" + indice +
+                    ", estado=" + estado +
+                    ", id=" + id +
+                    ", mensaje='" + mensaje + '\'' +
+                    '}';
+        }
+    }
+
+    private final List<Fila> filas;
+
+    public ResultadoLote(List<Fila> filas) {
+        this.filas = filas;
+    }
+
+    public List<Fila> getFilas() {
+        return Collections.unmodifiableList(filas);
+    }
+
+    /**
+     * IDs generados, en el orden de entrada (solo filas insertadas)
+     */
+    public List<Long> getIdsGenerados() {
+        List<Long> ids = new ArrayList<>();
+        for (Fila fila : filas) {
+            if (fila.estado == Estado.INSERTADO) {
+                ids.add(fila.id);
+            }
+        }
+        return ids;
+    }
+
+    public int getInsertados() {
+        return contar(Estado.INSERTADO);
+    }
+
+    public int getDuplicados() {
+        return contar(Estado.DUPLICADO);
+    }
+
+    public int getErrores() {
+        return contar(Estado.ERROR);
+    }
+
+    private int contar(Estado estado) {
+        int total = 0;
+        for (Fila fila : filas) {
+            if (fila.estado == estado) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoLote{" +
+                "insertados=" + getInsertados() +
+                ", duplicados=" + getDuplicados() +
+                ", errores=" + getErrores() +
+                '}';
+    }
+}
@@ -0,0 +1,7 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto;
+
+/**
+ * ConteoAno - Una barra del histograma por año de publicación
+ */
+public record ConteoAno(int ano, long libros, long disponibles) {
+}
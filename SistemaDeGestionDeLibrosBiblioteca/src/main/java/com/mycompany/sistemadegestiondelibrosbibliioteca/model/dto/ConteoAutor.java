@@ -0,0 +1,7 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto;
+
+/**
+ * ConteoAutor - Libros de un autor y cuántos de ellos están disponibles
+ */
+public record ConteoAutor(String autor, long libros, long disponibles) {
+}
@@ -0,0 +1,9 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto;
+
+import java.util.List;
+
+/**
+ * Estadisticas - Panel de estadísticas: disponibilidad, autores con más libros e histograma por año
+ */
+public record Estadisticas(ResumenDisponibilidad disponibilidad, List<ConteoAutor> autores, List<ConteoAno> anos) {
+}
@@ -10,29 +10,46 @@ package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto;
  */
 
 public class LibroDTO {
-    private Long id;
+    // Campos primitivos: un listado no crea un Long/Integer por columna y fila
+    // 0 equivale a "sin valor" (los IDs, años y versiones válidos son siempre positivos)
+    private long id;
     private String titulo;
     private String autor;
-    private Integer anoPublicacion;
+    private int anoPublicacion;
+    // Versión a enviar de vuelta al actualizar (concurrencia optimista)
+    private long version;
     // El campo 'disponible' está OCULTO
 
     /**
      * Constructor
      */
     public LibroDTO(Long id, String titulo, String autor, Integer anoPublicacion) {
+        this(id, titulo, autor, anoPublicacion, null);
+    }
+
+    public LibroDTO(Long id, String titulo, String autor, Integer anoPublicacion, Long version) {
+        this(id != null ? id : 0L, titulo, autor, anoPublicacion != null ? anoPublicacion : 0,
+                version != null ? version : 0L);
+    }
+
+    /**
+     * Constructor con primitivos (proyección directa desde el ResultSet)
+     */
+    public LibroDTO(long id, String titulo, String autor, int anoPublicacion, long version) {
         this.id = id;
         this.titulo = titulo;
         this.autor = autor;
         this.anoPublicacion = anoPublicacion;
+        this.version = version;
     }
     
-    // Getters y Setters
+    // Getters y Setters (null cuando el campo no tiene valor)
     public Long getId() {
-        return id;
+        return id != 0 ? id : null;
     }
     
     public void setId(Long id) {
-        this.id = id;
+        this.id = id != null ? id : 0L;
     }
     
     public String getTitulo() {
@@ -52,20 +69,29 @@ public class LibroDTO {
     }
     
     public Integer getAnoPublicacion() {
-        return anoPublicacion;
+        return anoPublicacion != 0 ? anoPublicacion : null;
     }
     
     public void setAnoPublicacion(Integer anoPublicacion) {
-        this.anoPublicacion = anoPublicacion;
+        this.anoPublicacion = anoPublicacion != null ? anoPublicacion : 0;
+    }
+    
+    public Long getVersion() {
+        return version != 0 ? version : null;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version != null ? version : 0L;
     }
     
     @Override
     public String toString() {
         return "LibroDTO{" + 
-                "id=" + id + 
+                "id=" + getId() + 
                 ", titulo='" + titulo + '\'' + 
                 ", autor='" + autor + '\'' + 
-                ", anoPublicacion=" + anoPublicacion + 
+                ", anoPublicacion=" + getAnoPublicacion() + 
+                ", version=" + getVersion() + 
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Pagina - Resultado de una consulta paginada por keyset
+ * El token es opaco: se devuelve tal cual para pedir la página siguiente
+ */
+public class Pagina<T> {
+    private final List<T> elementos;
+    private final String tokenSiguiente;
+
+    public Pagina(List<T> elementos, String tokenSiguiente) {
+        this.elementos = elementos;
+        this.tokenSiguiente = tokenSiguiente;
+    }
+
+    public List<T> getElementos() {
+        return Collections.unmodifiableList(elementos);
+    }
+
+    /**
+     * Token de continuación, null si es la última página
+     */
+    public String getTokenSiguiente() {
+        return tokenSiguiente;
+    }
+
+    public boolean hayMas() {
+        return tokenSiguiente != null;
+    }
+
+    /**
+     * Convertir los elementos conservando el token
+     */
+    public <R> Pagina<R> mapear(Function<? super T, ? extends R> conversor) {
+        List<R> convertidos = new ArrayList<>(elementos.size());
+        for (T elemento : elementos) {
+            convertidos.add(conversor.apply(elemento));
+        }
+        return new Pagina<>(convertidos, tokenSiguiente);
+    }
+
+    @Override
+    public String toString() {
+        return "Pagina{" +
+                "elementos=" + elementos.size() +
+                ", tokenSiguiente='" + tokenSiguiente + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,11 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto;
+
+/**
+ * ResumenDisponibilidad - Libros disponibles frente a prestados
+ */
+public record ResumenDisponibilidad(long total, long disponibles) {
+
+    public long prestados() {
+        return total - disponibles;
+    }
+}
@@ -0,0 +1,14 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto;
+
+/**
+ * Sugerencia - Una compleción de autocompletado
+ * texto es el valor tal como está guardado; libros, cuántos libros lo tienen
+ */
+public record Sugerencia(String texto, Campo campo, int libros) {
+
+    // Columna de la que sale la sugerencia
+    public enum Campo {
+        TITULO,
+        AUTOR
+    }
+}
@@ -0,0 +1,324 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.service;
+
+import com.mycompany.sistemadegestiondelibrosbibliioteca.config.DatabaseConfig;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.metricas.MetricasOperacion;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.metricas.RegistroMetricas;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.ILibroDAO;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.LibroDAOFactory;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.LibroDuplicadoException;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.ResultadoLote;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.entity.Libro;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.util.Log;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ColaEscritura - Escritura diferida (write-behind) de libros nuevos
+ * Los libros aceptados esperan en una cola acotada; un hilo vaciador los guarda con
+ * createAll en una transacción por lote, cuando se juntan tamanoLote, vence la ventana
+ * o dejan de llegar libros durante una pausa (así quien espera el commit no paga la
+ * ventana entera). Una ráfaga de N altas cuesta unos pocos commits en lugar de N.
+ *
+ * Al cerrar (DatabaseConfig.cerrarConexion) deja de aceptar y guarda todo lo pendiente.
+ * La aplicación usa una sola cola por BD (compartida()), que se vuelve a crear al reabrirla.
+ */
+public class ColaEscritura implements ColaEscrituraMBean {
+
+    private static final Log LOG = Log.de(ColaEscritura.class);
+
+    // Parámetros (sobrescribibles con -Dbiblioteca.escritura.*)
+    private static final int CAPACIDAD = Integer.getInteger("biblioteca.escritura.capacidad", 10_000);
+    private static final int TAMANO_LOTE = Integer.getInteger("biblioteca.escritura.lote", 500);
+    private static final long VENTANA_MS = Long.getLong("biblioteca.escritura.ventanaMs", 50);
+    private static final long PAUSA_MS = Long.getLong("biblioteca.escritura.pausaMs", 2);
+    private static final long ESPERA_MS = Long.getLong("biblioteca.escritura.esperaMs", 1_000);
+    private static final long ESPERA_CIERRE_MS = 30_000;
+
+    // Duración de cada lote guardado
+    private static final MetricasOperacion METRICA_LOTE = RegistroMetricas.operacion("cola.lote");
+
+    // Cola de LibroDAOFactory.compartido(); se descarta al cerrar la BD, después de vaciarse
+    private static volatile ColaEscritura compartida;
+
+    private final ILibroDAO libroDAO;
+    private final BlockingQueue<Pendiente> cola;
+    private final int capacidad;
+    private final int tamanoLote;
+    private final long ventanaNanos;
+    private final long pausaNanos;
+    private final long esperaMs;
+    private final Thread vaciador;
+
+    private volatile boolean cerrada = false;
+
+    private final AtomicLong encolados = new AtomicLong();
+    private final AtomicLong confirmados = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong rechazados = new AtomicLong();
+    private final AtomicLong lotes = new AtomicLong();
+
+    /**
+     * Libro en cola y la confirmación que se completa al guardar su lote
+     */
+    private static final class Pendiente {
+        final Libro libro;
+        final CompletableFuture<Libro> confirmacion = new CompletableFuture<>();
+
+        Pendiente(Libro libro) {
+            this.libro = libro;
+        }
+    }
+
+    public ColaEscritura(ILibroDAO libroDAO) {
+        this(libroDAO, CAPACIDAD, TAMANO_LOTE, VENTANA_MS, PAUSA_MS, ESPERA_MS);
+    }
+
+    public ColaEscritura(ILibroDAO libroDAO, int capacidad, int tamanoLote, long ventanaMs, long pausaMs, long esperaMs) {
+        if (capacidad <= 0 || tamanoLote <= 0) {
+            throw new IllegalArgumentException("La capacidad y el tamaño de lote deben ser positivos");
+        }
+        this.libroDAO = libroDAO;
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.capacidad = capacidad;
+        this.tamanoLote = tamanoLote;
+        this.ventanaNanos = TimeUnit.MILLISECONDS.toNanos(ventanaMs);
+        this.pausaNanos = TimeUnit.MILLISECONDS.toNanos(Math.min(pausaMs, ventanaMs));
+        this.esperaMs = esperaMs;
+
+        this.vaciador = new Thread(this::vaciarContinuamente, "cola-escritura");
+        vaciador.setDaemon(true);
+        vaciador.start();
+
+        RegistroMetricas.publicar("ColaEscritura", "libros", this);
+        DatabaseConfig.alCerrar(this::cerrar);
+    }
+
+    /**
+     * Cola única sobre el DAO compartido, creada en el primer uso
+     * Un solo hilo vaciador y un solo MBean por muchos servicios que encolen
+     */
+    public static ColaEscritura compartida() {
+        ColaEscritura actual = compartida;
+        if (actual == null) {
+            synchronized (ColaEscritura.class) {
+                actual = compartida;
+                if (actual == null) {
+                    ILibroDAO dao = LibroDAOFactory.compartido();
+                    // Registrado antes que cerrar() de la cola: al cerrar (en orden inverso) primero se vacía
+                    DatabaseConfig.alCerrar(ColaEscritura::descartarCompartida);
+                    actual = new ColaEscritura(dao);
+                    compartida = actual;
+                }
+            }
+        }
+        return actual;
+    }
+
+    private static synchronized void descartarCompartida() {
+        compartida = null;
+    }
+
+    /**
+     * Encolar un libro validado
+     * Si la cola está llena espera hasta esperaMs; después lo rechaza (contrapresión)
+     *
+     * @return se completa con el libro (ya con ID) al confirmarse su lote
+     */
+    public CompletableFuture<Libro> encolar(Libro libro) {
+        if (cerrada) {
+            throw rechazar("La cola de escritura está cerrada");
+        }
+
+        Pendiente pendiente = new Pendiente(libro);
+        try {
+            if (!cola.offer(pendiente, esperaMs, TimeUnit.MILLISECONDS)) {
+                throw rechazar("Cola de escritura llena (" + capacidad + " libros pendientes)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw rechazar("Interrumpido esperando sitio en la cola de escritura");
+        }
+
+        // Si se cerró mientras tanto y nadie lo ha recogido, no quedará huérfano
+        if (cerrada && cola.remove(pendiente)) {
+            throw rechazar("La cola de escritura está cerrada");
+        }
+
+        encolados.incrementAndGet();
+        return pendiente.confirmacion;
+    }
+
+    /**
+     * Dejar de aceptar libros y guardar todo lo pendiente
+     */
+    public void cerrar() {
+        if (cerrada) {
+            return;
+        }
+        cerrada = true;
+
+        try {
+            vaciador.join(ESPERA_CIERRE_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Lo que quede (vaciador lento o encolado en la carrera del cierre) se guarda aquí
+        List<Pendiente> restantes = new ArrayList<>();
+        while (cola.drainTo(restantes, tamanoLote) > 0) {
+            guardar(restantes);
+            restantes.clear();
+        }
+        LOG.info(() -> "Cola de escritura cerrada: " + confirmados.get() + " confirmados, "
+                + descartados.get() + " descartados, " + lotes.get() + " lotes");
+    }
+
+    @Override
+    public int getProfundidad() {
+        return cola.size();
+    }
+
+    @Override
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    @Override
+    public long getEncolados() {
+        return encolados.get();
+    }
+
+    @Override
+    public long getConfirmados() {
+        return confirmados.get();
+    }
+
+    @Override
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    @Override
+    public long getRechazados() {
+        return rechazados.get();
+    }
+
+    @Override
+    public long getLotes() {
+        return lotes.get();
+    }
+
+    // ========================================================================
+    // MÉTODOS AUXILIARES
+    // ========================================================================
+
+    /**
+     * Bucle del hilo vaciador: termina cuando la cola está cerrada y vacía
+     */
+    private void vaciarContinuamente() {
+        List<Pendiente> lote = new ArrayList<>(tamanoLote);
+
+        while (!cerrada || !cola.isEmpty()) {
+            try {
+                // Despierta periódicamente para notar el cierre
+                Pendiente primero = cola.poll(100, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+
+                // Juntar hasta tamanoLote, hasta que venza la ventana desde el primero
+                // o hasta que no llegue nada durante una pausa
+                long limite = System.nanoTime() + ventanaNanos;
+                while (lote.size() < tamanoLote && !cerrada) {
+                    cola.drainTo(lote, tamanoLote - lote.size());
+                    long resta = limite - System.nanoTime();
+                    if (lote.size() >= tamanoLote || resta <= 0) {
+                        break;
+                    }
+                    Pendiente siguiente = cola.poll(Math.min(resta, pausaNanos), TimeUnit.NANOSECONDS);
+                    if (siguiente == null) {
+                        break;
+                    }
+                    lote.add(siguiente);
+                }
+                cola.drainTo(lote, tamanoLote - lote.size());
+
+                guardar(lote);
+            } catch (InterruptedException e) {
+                // Lo pendiente lo guarda cerrar()
+                Thread.currentThread().interrupt();
+                guardar(lote);
+                return;
+            } catch (RuntimeException e) {
+                LOG.error(() -> "Error inesperado en el vaciador de la cola de escritura", e);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Guardar un lote en una transacción y completar la confirmación de cada libro
+     */
+    private void guardar(List<Pendiente> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        boolean error = false;
+        try {
+            List<Libro> libros = new ArrayList<>(lote.size());
+            for (Pendiente pendiente : lote) {
+                libros.add(pendiente.libro);
+            }
+
+            ResultadoLote resultado = libroDAO.createAll(libros);
+            for (ResultadoLote.Fila fila : resultado.getFilas()) {
+                Pendiente pendiente = lote.get(fila.getIndice());
+                switch (fila.getEstado()) {
+                    case INSERTADO -> {
+                        confirmados.incrementAndGet();
+                        pendiente.confirmacion.complete(pendiente.libro);
+                    }
+                    case DUPLICADO -> {
+                        descartados.incrementAndGet();
+                        pendiente.confirmacion.completeExceptionally(
+                                new LibroDuplicadoException(pendiente.libro.getTitulo(), pendiente.libro.getAutor()));
+                    }
+                    case ERROR -> {
+                        error = true;
+                        descartados.incrementAndGet();
+                        pendiente.confirmacion.completeExceptionally(
+                                new RuntimeException("Error al crear libro: " + fila.getMensaje()));
+                    }
+                }
+            }
+            LOG.debug(() -> "Lote de escritura guardado: " + resultado);
+
+        } catch (RuntimeException e) {
+            error = true;
+            LOG.error(() -> "Error guardando lote de " + lote.size() + " libros", e);
+            for (Pendiente pendiente : lote) {
+                if (pendiente.confirmacion.completeExceptionally(e)) {
+                    descartados.incrementAndGet();
+                }
+            }
+        } finally {
+            lotes.incrementAndGet();
+            METRICA_LOTE.registrar(inicio, error);
+        }
+    }
+
+    private RejectedExecutionException rechazar(String mensaje) {
+        rechazados.incrementAndGet();
+        return new RejectedExecutionException(mensaje);
+    }
+}
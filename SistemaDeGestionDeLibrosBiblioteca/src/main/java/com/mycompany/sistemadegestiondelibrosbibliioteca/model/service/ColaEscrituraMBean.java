@@ -0,0 +1,23 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.service;
+
+// ColaEscrituraMBean - Vista JMX de la cola de escritura diferida
+// Se publica como com.mycompany.biblioteca:type=ColaEscritura,name=libros
+public interface ColaEscrituraMBean {
+
+    // Libros en cola esperando el siguiente lote
+    int getProfundidad();
+
+    int getCapacidad();
+
+    long getEncolados();
+
+    long getConfirmados();
+
+    // Duplicados o con error al guardar el lote
+    long getDescartados();
+
+    // Rechazados por cola llena o cerrada
+    long getRechazados();
+
+    long getLotes();
+}
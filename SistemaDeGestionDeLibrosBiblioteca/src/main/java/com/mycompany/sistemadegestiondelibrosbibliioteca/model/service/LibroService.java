@@ -8,13 +8,29 @@ package com.mycompany.sistemadegestiondelibrosbibliioteca.model.service;
  *
  * @author gian_
  */
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.FiltroLibros;
 import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.ILibroDAO;
-import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.LibroDAOImpl;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.LibroDAOFactory;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.LibroNoEncontradoException;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.OrdenLibro;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.ProyeccionLibro;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.Resultado;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ConteoAno;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Estadisticas;
 import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.LibroDTO;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Pagina;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ResumenDisponibilidad;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Sugerencia;
 import com.mycompany.sistemadegestiondelibrosbibliioteca.model.entity.Libro;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.util.Log;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * LibroService - Capa de lógica de negocio
@@ -22,44 +38,75 @@ import java.util.ArrayList;
  */
 public class LibroService {
 
+    private static final Log LOG = Log.de(LibroService.class);
+
+    // IDs aceptados por una operación masiva
+    private static final int MAX_IDS_MASIVO = 100_000;
+
+    // Fila -> DTO sin pasar por la entidad ('disponible' no se expone)
+    private static final ProyeccionLibro<LibroDTO> PROYECCION_DTO =
+            (id, titulo, autor, ano, disponible, version) -> new LibroDTO(id, titulo, autor, ano, version);
+
     private ILibroDAO libroDAO;
 
+    // Durabilidad de agregarLibro; la cola solo existe en los modos diferidos
+    // Con el DAO compartido se pide en cada alta: tras reabrir la BD se usa la cola nueva
+    private final ModoEscritura modoEscritura;
+    private final Supplier<ColaEscritura> colaEscritura;
+
     public LibroService() {
-        this.libroDAO = new LibroDAOImpl();
+        this(LibroDAOFactory.compartido());
+    }
+
+    public LibroService(ILibroDAO libroDAO) {
+        this(libroDAO, ModoEscritura.configurado());
+    }
+
+    public LibroService(ILibroDAO libroDAO, ModoEscritura modoEscritura) {
+        this.libroDAO = libroDAO;
+        this.modoEscritura = modoEscritura;
+        if (modoEscritura == ModoEscritura.DIRECTO) {
+            this.colaEscritura = null;
+        } else if (LibroDAOFactory.esCompartido(libroDAO)) {
+            this.colaEscritura = ColaEscritura::compartida;
+        } else {
+            ColaEscritura propia = new ColaEscritura(libroDAO);
+            this.colaEscritura = () -> propia;
+        }
     }
 
     /**
      * Obtener libro por ID
+     * Lanza IllegalArgumentException si el ID no es válido y LibroNoEncontradoException si no existe
      */
     public LibroDTO obtenerLibroPorId(Long id) {
+        return buscarLibroPorId(id).obtener();
+    }
+
+    /**
+     * Buscar libro por ID con el desenlace tipado
+     * ID inválido y libro inexistente son resultados normales: no se crea ninguna excepción
+     */
+    public Resultado<LibroDTO> buscarLibroPorId(Long id) {
         // Validaciones básicas
         if (id == null) {
-            throw new IllegalArgumentException("El ID no puede ser nulo");
+            return Resultado.invalido("El ID no puede ser nulo");
         }
 
         if (id <= 0) {
-            throw new IllegalArgumentException("El ID debe ser positivo");
+            return Resultado.invalido("El ID debe ser positivo");
         }
 
-        try {
-            Optional<Libro> libroOpt = libroDAO.read(id);
-
-            if (!libroOpt.isPresent()) {
-                throw new RuntimeException("Libro no encontrado con ID: " + id + " (Error 404)");
-            }
-
-            return convertirADTO(libroOpt.get());
-
-        } catch (Exception e) {
-            if (e instanceof IllegalArgumentException || e instanceof RuntimeException) {
-                throw e;
-            }
-            throw new RuntimeException("Error accediendo a la base de datos: " + e.getMessage());
+        Resultado<Libro> resultado = libroDAO.find(id);
+        if (resultado.getEstado() == Resultado.Estado.FALLO) {
+            LOG.error(() -> "Error leyendo libro " + id, resultado.getCausa());
         }
+        return resultado.map(this::convertirADTO);
     }
 
     /**
      * Agregar nuevo libro
+     * En modo ENCOLAR devuelve el libro sin ID: se guardará en el siguiente lote
      */
     public LibroDTO agregarLibro(String titulo, String autor, String anoPublicacionStr) {
         // Validaciones de negocio
@@ -75,8 +122,21 @@ public class LibroService {
             nuevoLibro.setAnoPublicacion(anoPublicacion);
             nuevoLibro.setDisponible(true);
 
-            // Usar DAO CRUD
-            Libro libroGuardado = libroDAO.create(nuevoLibro);
+            // Usar DAO CRUD, directamente o a través de la cola de escritura
+            Libro libroGuardado = switch (modoEscritura) {
+                case DIRECTO -> libroDAO.create(nuevoLibro);
+                case COMMIT -> esperarConfirmacion(colaEscritura.get().encolar(nuevoLibro));
+                case ENCOLAR -> {
+                    // Ya respondido al cliente: un fallo posterior solo puede registrarse
+                    colaEscritura.get().encolar(nuevoLibro).whenComplete((libro, error) -> {
+                        if (error != null) {
+                            LOG.warn(() -> "Libro encolado descartado: " + error.getMessage());
+                        }
+                    });
+                    yield nuevoLibro;
+                }
+            };
+            LOG.debug(() -> "Libro agregado con ID " + libroGuardado.getId());
 
             return convertirADTO(libroGuardado);
 
@@ -84,36 +144,57 @@ public class LibroService {
             if (e instanceof IllegalArgumentException || e instanceof RuntimeException) {
                 throw e;
             }
+            LOG.error(() -> "Error guardando libro " + titulo, e);
             throw new RuntimeException("Error guardando libro: " + e.getMessage());
         }
     }
 
     /**
      * Actualizar libro existente
+     * Lee el libro y lo guarda con la versión leída: si otro escritor lo cambia entre
+     * la lectura y la escritura, falla con ConflictoVersionException en lugar de pisarlo
      */
     public LibroDTO actualizarLibro(Long id, String titulo, String autor, String anoPublicacionStr) {
+        return actualizarLibro(id, null, titulo, autor, anoPublicacionStr);
+    }
+
+    /**
+     * Actualizar libro existente conociendo su versión (la del último LibroDTO recibido)
+     * Con versión no hace falta leer antes: un solo UPDATE condicional detecta el conflicto
+     */
+    public LibroDTO actualizarLibro(Long id, Long version, String titulo, String autor, String anoPublicacionStr) {
         // Validaciones
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("ID inválido para actualizar");
         }
 
+        if (version != null && version < 1) {
+            throw new IllegalArgumentException("La versión debe ser positiva");
+        }
+
         validarTitulo(titulo);
         validarAutor(autor);
         Integer anoPublicacion = validarAnoPublicacion(anoPublicacionStr);
 
         try {
-            // Verificar que existe
-            Optional<Libro> existente = libroDAO.read(id);
-            if (!existente.isPresent()) {
-                throw new RuntimeException("Libro no encontrado para actualizar");
+            Libro libro;
+            if (version != null) {
+                // disponible null: el DAO conserva el valor guardado
+                libro = new Libro(id, titulo.trim(), autor.trim(), anoPublicacion, null, version);
+            } else {
+                // Verificar que existe
+                Optional<Libro> existente = libroDAO.read(id);
+                if (!existente.isPresent()) {
+                    throw new LibroNoEncontradoException(id);
+                }
+
+                // Actualizar datos
+                libro = existente.get();
+                libro.setTitulo(titulo.trim());
+                libro.setAutor(autor.trim());
+                libro.setAnoPublicacion(anoPublicacion);
             }
 
-            // Actualizar datos
-            Libro libro = existente.get();
-            libro.setTitulo(titulo.trim());
-            libro.setAutor(autor.trim());
-            libro.setAnoPublicacion(anoPublicacion);
-
             // Usar DAO CRUD
             Libro actualizado = libroDAO.update(libro);
 
@@ -123,6 +204,7 @@ public class LibroService {
             if (e instanceof IllegalArgumentException || e instanceof RuntimeException) {
                 throw e;
             }
+            LOG.error(() -> "Error actualizando libro " + id, e);
             throw new RuntimeException("Error actualizando libro: " + e.getMessage());
         }
     }
@@ -138,26 +220,215 @@ public class LibroService {
         try {
             return libroDAO.delete(id);
         } catch (Exception e) {
+            LOG.error(() -> "Error eliminando libro " + id, e);
             throw new RuntimeException("Error eliminando libro: " + e.getMessage());
         }
     }
 
+    /**
+     * Eliminar muchos libros por ID en una sola transacción
+     * Devuelve cuántos existían y se eliminaron
+     */
+    public int eliminarLibros(Collection<Long> ids) {
+        validarIds(ids);
+
+        try {
+            return libroDAO.deleteAll(ids);
+        } catch (Exception e) {
+            LOG.error(() -> "Error eliminando " + ids.size() + " libros", e);
+            throw new RuntimeException("Error eliminando libros: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Marcar muchos libros como disponibles o prestados en una sola transacción
+     * Devuelve cuántos cambiaron de estado (los que ya lo tenían no cuentan)
+     */
+    public int cambiarDisponibilidad(Collection<Long> ids, boolean disponible) {
+        validarIds(ids);
+
+        try {
+            return libroDAO.setDisponible(ids, disponible);
+        } catch (Exception e) {
+            LOG.error(() -> "Error cambiando disponibilidad de " + ids.size() + " libros", e);
+            throw new RuntimeException("Error cambiando disponibilidad: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Eliminar todos los libros de un autor y/o de un rango de años (al menos un criterio)
+     */
+    public int eliminarLibrosPorFiltro(String autor, Integer anoDesde, Integer anoHasta) {
+        FiltroLibros filtro = construirFiltro(autor, anoDesde, anoHasta);
+
+        try {
+            return libroDAO.deleteAll(filtro);
+        } catch (Exception e) {
+            LOG.error(() -> "Error eliminando libros " + filtro, e);
+            throw new RuntimeException("Error eliminando libros: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cambiar la disponibilidad de todos los libros de un autor y/o de un rango de años
+     */
+    public int cambiarDisponibilidadPorFiltro(String autor, Integer anoDesde, Integer anoHasta, boolean disponible) {
+        FiltroLibros filtro = construirFiltro(autor, anoDesde, anoHasta);
+
+        try {
+            return libroDAO.setDisponible(filtro, disponible);
+        } catch (Exception e) {
+            LOG.error(() -> "Error cambiando disponibilidad " + filtro, e);
+            throw new RuntimeException("Error cambiando disponibilidad: " + e.getMessage());
+        }
+    }
+
     /**
      * Obtener todos los libros
      */
     public List<LibroDTO> obtenerTodosLosLibros() {
         try {
-            List<Libro> libros = libroDAO.readAll();
-            List<LibroDTO> librosDTO = new ArrayList<>();
+            // Cada fila pasa directamente a DTO, sin crear la entidad intermedia
+            return libroDAO.readAll(PROYECCION_DTO);
+
+        } catch (Exception e) {
+            throw new RuntimeException("Error listando libros: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recorrer todos los libros como DTO sin materializar la lista
+     * El llamador debe cerrar el Stream para liberar la conexión
+     */
+    public Stream<LibroDTO> streamTodosLosLibros() {
+        try {
+            return libroDAO.streamAll(PROYECCION_DTO);
+        } catch (Exception e) {
+            throw new RuntimeException("Error listando libros: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Obtener una página de libros ordenada por id, titulo o autor
+     * token null pide la primera página; el token de la respuesta pide la siguiente
+     */
+    public Pagina<LibroDTO> obtenerPaginaLibros(String orden, String token, int tamano) {
+        OrdenLibro ordenLibro = validarOrden(orden);
+
+        if (tamano < 1 || tamano > 100) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y 100");
+        }
+
+        String tokenLimpio = token == null || token.trim().isEmpty() ? null : token.trim();
 
-            for (Libro libro : libros) {
+        try {
+            return libroDAO.readPage(ordenLibro, tokenLimpio, tamano).mapear(this::convertirADTO);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Error paginando libros: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Buscar libros por palabras del título o del autor, los más relevantes primero
+     * Cada palabra cuenta como prefijo: "harr pot" encuentra "Harry Potter"
+     */
+    public List<LibroDTO> buscarLibros(String consulta, int limite) {
+        if (consulta == null || consulta.trim().isEmpty()) {
+            throw new IllegalArgumentException("La búsqueda no puede estar vacía");
+        }
+
+        if (consulta.length() > 200) {
+            throw new IllegalArgumentException("La búsqueda no puede exceder 200 caracteres");
+        }
+
+        if (limite < 1 || limite > 100) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y 100");
+        }
+
+        try {
+            List<LibroDTO> librosDTO = new ArrayList<>();
+            for (Libro libro : libroDAO.search(consulta, limite)) {
                 librosDTO.add(convertirADTO(libro));
             }
-
             return librosDTO;
 
         } catch (Exception e) {
-            throw new RuntimeException("Error listando libros: " + e.getMessage());
+            LOG.error(() -> "Error buscando '" + consulta + "'", e);
+            throw new RuntimeException("Error buscando libros: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Autocompletar títulos y autores mientras se escribe
+     * Un prefijo vacío no sugiere nada
+     */
+    public List<Sugerencia> autocompletar(String prefijo, int limite) {
+        if (prefijo == null || prefijo.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        if (prefijo.length() > 100) {
+            throw new IllegalArgumentException("El prefijo no puede exceder 100 caracteres");
+        }
+
+        if (limite < 1 || limite > 20) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y 20");
+        }
+
+        try {
+            return libroDAO.autocomplete(prefijo, limite);
+        } catch (Exception e) {
+            throw new RuntimeException("Error autocompletando: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Estadísticas del catálogo: disponibles/prestados, autores con más libros e histograma por año
+     * Todo se agrega en SQL; aquí solo se juntan los tres resultados
+     */
+    public Estadisticas obtenerEstadisticas(int limiteAutores) {
+        if (limiteAutores < 1 || limiteAutores > 100) {
+            throw new IllegalArgumentException("El límite de autores debe estar entre 1 y 100");
+        }
+
+        try {
+            return new Estadisticas(libroDAO.countAvailability(), libroDAO.countByAuthor(limiteAutores),
+                    libroDAO.countByYear(1000, java.time.Year.now().getValue()));
+        } catch (Exception e) {
+            LOG.error(() -> "Error calculando estadísticas", e);
+            throw new RuntimeException("Error calculando estadísticas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Histograma de libros por año de publicación entre desde y hasta (incluidos)
+     */
+    public List<ConteoAno> obtenerHistogramaAnos(int desde, int hasta) {
+        if (desde > hasta) {
+            throw new IllegalArgumentException("El año inicial no puede ser mayor que el final");
+        }
+
+        try {
+            return libroDAO.countByYear(desde, hasta);
+        } catch (Exception e) {
+            throw new RuntimeException("Error calculando el histograma por año: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Total y disponibles de los libros de un autor y/o de un rango de años
+     * Con la instantánea columnar activa (-Dbiblioteca.columnar=true) se responde desde memoria
+     */
+    public ResumenDisponibilidad contarLibros(String autor, Integer anoDesde, Integer anoHasta) {
+        FiltroLibros filtro = construirFiltro(autor, anoDesde, anoHasta);
+
+        try {
+            return libroDAO.countAvailability(filtro);
+        } catch (Exception e) {
+            LOG.error(() -> "Error contando libros " + filtro, e);
+            throw new RuntimeException("Error contando libros: " + e.getMessage());
         }
     }
 
@@ -193,6 +464,47 @@ public class LibroService {
         }
     }
 
+    private OrdenLibro validarOrden(String orden) {
+        if (orden == null || orden.trim().isEmpty()) {
+            return OrdenLibro.ID;
+        }
+
+        try {
+            return OrdenLibro.valueOf(orden.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Orden inválido: use id, titulo o autor");
+        }
+    }
+
+    private void validarIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("La lista de IDs no puede estar vacía");
+        }
+
+        if (ids.size() > MAX_IDS_MASIVO) {
+            throw new IllegalArgumentException("No se pueden procesar más de " + MAX_IDS_MASIVO + " IDs a la vez");
+        }
+
+        for (Long id : ids) {
+            if (id == null || id <= 0) {
+                throw new IllegalArgumentException("Todos los IDs deben ser positivos");
+            }
+        }
+    }
+
+    private FiltroLibros construirFiltro(String autor, Integer anoDesde, Integer anoHasta) {
+        boolean conAutor = autor != null && !autor.trim().isEmpty();
+        if (!conAutor && anoDesde == null && anoHasta == null) {
+            throw new IllegalArgumentException("Indique un autor o un rango de años");
+        }
+
+        FiltroLibros filtro = conAutor ? FiltroLibros.porAutor(autor) : null;
+        if (anoDesde != null || anoHasta != null) {
+            filtro = filtro == null ? FiltroLibros.porAnos(anoDesde, anoHasta) : filtro.conAnos(anoDesde, anoHasta);
+        }
+        return filtro;
+    }
+
     private Integer validarAnoPublicacion(String anoPublicacionStr) {
         if (anoPublicacionStr == null || anoPublicacionStr.trim().isEmpty()) {
             throw new IllegalArgumentException("El año de publicación no puede estar vacío");
@@ -221,6 +533,20 @@ public class LibroService {
         return anoPublicacion;
     }
 
+    /**
+     * Esperar a que el lote que contiene el libro se confirme
+     */
+    private Libro esperarConfirmacion(CompletableFuture<Libro> confirmacion) {
+        try {
+            return confirmacion.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
     /**
      * Convertir Entity a DTO
      */
@@ -229,7 +555,8 @@ public class LibroService {
                 libro.getId(),
                 libro.getTitulo(),
                 libro.getAutor(),
-                libro.getAnoPublicacion()
+                libro.getAnoPublicacion(),
+                libro.getVersion()
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.model.service;
+
+/**
+ * ModoEscritura - Durabilidad de LibroService.agregarLibro
+ * Se elige con -Dbiblioteca.escritura.modo=directo|encolar|commit
+ */
+public enum ModoEscritura {
+    // INSERT síncrono por llamada (comportamiento original)
+    DIRECTO,
+    // Confirma al encolar: responde sin ID y el libro se guarda en el siguiente lote
+    ENCOLAR,
+    // Confirma al hacer commit: espera a que el lote que lo contiene se guarde
+    COMMIT;
+
+    public static ModoEscritura configurado() {
+        String valor = System.getProperty("biblioteca.escritura.modo", "directo");
+        try {
+            return valueOf(valor.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Modo de escritura inválido '" + valor + "': use directo, encolar o commit");
+        }
+    }
+}
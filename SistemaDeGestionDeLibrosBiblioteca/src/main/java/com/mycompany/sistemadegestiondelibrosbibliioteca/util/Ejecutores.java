@@ -0,0 +1,39 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecutores - Creación de executors para atender peticiones concurrentes
+ * Hilos virtuales si la JVM los ofrece (Java 21+), si no un pool fijo de hilos de plataforma.
+ * Se resuelve por reflexión para que el mismo código compile con el perfil Java 17.
+ */
+public final class Ejecutores {
+
+    private static final Log LOG = Log.de(Ejecutores.class);
+
+    private Ejecutores() {
+    }
+
+    /**
+     * Un hilo virtual por tarea, o hilosPlataforma hilos daemon llamados nombre-N
+     */
+    public static ExecutorService virtualesOAcotado(String nombre, int hilosPlataforma) {
+        try {
+            ExecutorService virtual = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            LOG.info(() -> nombre + ": hilos virtuales");
+            return virtual;
+        } catch (ReflectiveOperationException e) {
+            LOG.info(() -> nombre + ": hilos virtuales no disponibles, pool de " + hilosPlataforma + " hilos");
+            AtomicInteger contador = new AtomicInteger();
+            return Executors.newFixedThreadPool(hilosPlataforma, r -> {
+                Thread hilo = new Thread(r, nombre + "-" + contador.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+    }
+}
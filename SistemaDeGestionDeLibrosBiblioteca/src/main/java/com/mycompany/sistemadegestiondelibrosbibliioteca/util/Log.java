@@ -0,0 +1,140 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.util;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Supplier;
+
+/**
+ * Log - Fachada mínima de logging con niveles y mensajes perezosos
+ * Los mensajes se pasan como Supplier: si el nivel está desactivado no se construye la cadena.
+ * El eco de SQL es una categoría aparte, desactivada por defecto.
+ *
+ * Configuración: -Dbiblioteca.log.nivel=ERROR|WARN|INFO|DEBUG|TRACE (INFO por defecto)
+ *                -Dbiblioteca.log.sql=true para ver cada sentencia SQL
+ */
+public final class Log {
+
+    private static volatile NivelLog nivel = leerNivel(System.getProperty("biblioteca.log.nivel", "INFO"));
+    private static volatile boolean sqlActivo = Boolean.getBoolean("biblioteca.log.sql");
+    private static volatile SalidaLog salida = new SalidaLogAsincrona(
+            Integer.getInteger("biblioteca.log.cola", 8192));
+
+    private static final DateTimeFormatter HORA = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+
+    private final String nombre;
+
+    private Log(String nombre) {
+        this.nombre = nombre;
+    }
+
+    /**
+     * Obtener un logger para una clase
+     */
+    public static Log de(Class<?> clase) {
+        return new Log(clase.getSimpleName());
+    }
+
+    // ========================================================================
+    // CONFIGURACIÓN GLOBAL
+    // ========================================================================
+
+    public static void setNivel(NivelLog nuevoNivel) {
+        nivel = nuevoNivel;
+    }
+
+    public static NivelLog getNivel() {
+        return nivel;
+    }
+
+    public static void setSqlActivo(boolean activo) {
+        sqlActivo = activo;
+    }
+
+    public static void setSalida(SalidaLog nuevaSalida) {
+        salida = nuevaSalida;
+    }
+
+    /**
+     * Esperar a que se escriban los mensajes pendientes
+     */
+    public static void vaciar() {
+        salida.vaciar();
+    }
+
+    // ========================================================================
+    // REGISTRO
+    // ========================================================================
+
+    public boolean activo(NivelLog nivelMensaje) {
+        return nivel.incluye(nivelMensaje);
+    }
+
+    public void error(Supplier<String> mensaje) {
+        registrar(NivelLog.ERROR, mensaje, null);
+    }
+
+    public void error(Supplier<String> mensaje, Throwable causa) {
+        registrar(NivelLog.ERROR, mensaje, causa);
+    }
+
+    public void warn(Supplier<String> mensaje) {
+        registrar(NivelLog.WARN, mensaje, null);
+    }
+
+    public void warn(Supplier<String> mensaje, Throwable causa) {
+        registrar(NivelLog.WARN, mensaje, causa);
+    }
+
+    public void info(Supplier<String> mensaje) {
+        registrar(NivelLog.INFO, mensaje, null);
+    }
+
+    public void debug(Supplier<String> mensaje) {
+        registrar(NivelLog.DEBUG, mensaje, null);
+    }
+
+    public void trace(Supplier<String> mensaje) {
+        registrar(NivelLog.TRACE, mensaje, null);
+    }
+
+    /**
+     * Eco de una sentencia SQL (constante: no hace falta Supplier)
+     */
+    public void sql(String sentencia) {
+        if (sqlActivo) {
+            salida.escribir(NivelLog.DEBUG, formatear(NivelLog.DEBUG, "SQL: " + sentencia, null));
+        }
+    }
+
+    private void registrar(NivelLog nivelMensaje, Supplier<String> mensaje, Throwable causa) {
+        if (!nivel.incluye(nivelMensaje)) {
+            return;
+        }
+        salida.escribir(nivelMensaje, formatear(nivelMensaje, mensaje.get(), causa));
+    }
+
+    private String formatear(NivelLog nivelMensaje, String mensaje, Throwable causa) {
+        StringBuilder linea = new StringBuilder(64 + mensaje.length())
+                .append(HORA.format(LocalTime.now())).append(' ')
+                .append(nivelMensaje).append(" [")
+                .append(Thread.currentThread().getName()).append("] ")
+                .append(nombre).append(" - ")
+                .append(mensaje);
+
+        if (causa != null) {
+            linea.append(System.lineSeparator()).append(causa);
+            for (StackTraceElement elemento : causa.getStackTrace()) {
+                linea.append(System.lineSeparator()).append("\tat ").append(elemento);
+            }
+        }
+        return linea.toString();
+    }
+
+    private static NivelLog leerNivel(String valor) {
+        try {
+            return NivelLog.valueOf(valor.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return NivelLog.INFO;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.util;
+
+// NivelLog - Niveles de severidad, de más a menos grave
+public enum NivelLog {
+    ERROR,
+    WARN,
+    INFO,
+    DEBUG,
+    TRACE;
+
+    // incluye - true si un mensaje de nivel 'mensaje' pasa el umbral 'this'
+    public boolean incluye(NivelLog mensaje) {
+        return mensaje.ordinal() <= ordinal();
+    }
+}
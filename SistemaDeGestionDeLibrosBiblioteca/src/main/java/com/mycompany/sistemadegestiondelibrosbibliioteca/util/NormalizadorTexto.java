@@ -0,0 +1,179 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * NormalizadorTexto - Sanitizado de texto en una sola pasada
+ * Produce exactamente la misma salida que la cadena de replaceAll original:
+ *   trim() → \s+ a un espacio → quitar &lt; &gt; " ' &amp; → quitar palabras SQL (sin distinguir mayúsculas ASCII)
+ * pero sin compilar expresiones regulares ni crear cadenas intermedias.
+ * Si el texto no cambia se devuelve la misma instancia.
+ */
+public final class NormalizadorTexto {
+
+    // Mismo orden que la alternativa (script|select|insert|update|delete|drop|create|alter)
+    private static final char[][] PALABRAS_SQL = {
+            "script".toCharArray(),
+            "select".toCharArray(),
+            "insert".toCharArray(),
+            "update".toCharArray(),
+            "delete".toCharArray(),
+            "drop".toCharArray(),
+            "create".toCharArray(),
+            "alter".toCharArray()
+    };
+
+    private NormalizadorTexto() {
+    }
+
+    /**
+     * Clave de comparación para búsquedas por prefijo: minúsculas, sin tildes ni diéresis
+     * y con los espacios colapsados ("  Cien  AÑOS " → "cien anos")
+     */
+    public static String claveBusqueda(String texto) {
+        if (texto == null) {
+            return "";
+        }
+
+        StringBuilder clave = new StringBuilder(texto.length());
+        boolean soloAscii = true;
+        boolean espacioPendiente = false;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (Character.isWhitespace(c)) {
+                espacioPendiente = clave.length() > 0;
+                continue;
+            }
+            if (espacioPendiente) {
+                clave.append(' ');
+                espacioPendiente = false;
+            }
+            if (c >= 0x80) {
+                soloAscii = false;
+            }
+            clave.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+        }
+
+        if (soloAscii) {
+            return clave.toString();
+        }
+
+        // Solo con texto no ASCII: descomponer (á → a + ´) y quitar las marcas
+        String descompuesta = Normalizer.normalize(clave.toString().toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder sinMarcas = new StringBuilder(descompuesta.length());
+        for (int i = 0; i < descompuesta.length(); i++) {
+            char c = descompuesta.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                sinMarcas.append(c);
+            }
+        }
+        return sinMarcas.toString();
+    }
+
+    /**
+     * Sanitizar un texto de entrada (null o en blanco → "")
+     */
+    public static String sanitizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+
+        // trim(): descarta caracteres <= ' ' en ambos extremos
+        int inicio = 0;
+        int fin = texto.length();
+        while (inicio < fin && texto.charAt(inicio) <= ' ') {
+            inicio++;
+        }
+        while (fin > inicio && texto.charAt(fin - 1) <= ' ') {
+            fin--;
+        }
+        if (inicio == fin) {
+            return "";
+        }
+
+        char[] salida = new char[fin - inicio];
+        int largo = 0;
+        // Las palabras SQL solo se buscan a partir de aquí (la regex no reexamina lo ya consumido)
+        int barrera = 0;
+        boolean modificado = inicio > 0 || fin < texto.length();
+        boolean enEspacios = false;
+
+        for (int i = inicio; i < fin; i++) {
+            char c = texto.charAt(i);
+
+            if (esEspacioRegex(c)) {
+                if (enEspacios) {
+                    modificado = true;
+                    continue;
+                }
+                enEspacios = true;
+                if (c != ' ') {
+                    modificado = true;
+                }
+                salida[largo++] = ' ';
+                continue;
+            }
+            enEspacios = false;
+
+            if (c == '<' || c == '>' || c == '"' || c == '\'' || c == '&') {
+                modificado = true;
+                continue;
+            }
+
+            salida[largo++] = c;
+
+            int palabra = palabraAlFinal(salida, largo, barrera, c);
+            if (palabra > 0) {
+                largo -= palabra;
+                barrera = largo;
+                modificado = true;
+            }
+        }
+
+        if (!modificado) {
+            return texto;
+        }
+        return new String(salida, 0, largo);
+    }
+
+    /**
+     * Longitud de la palabra SQL con la que termina el buffer (0 si ninguna)
+     * Ninguna palabra es prefijo, sufijo ni subcadena de otra, así que detectar por el final
+     * equivale a la búsqueda de izquierda a derecha de la regex
+     */
+    private static int palabraAlFinal(char[] salida, int largo, int barrera, char ultimo) {
+        char minuscula = minusculaAscii(ultimo);
+        if (minuscula != 't' && minuscula != 'e' && minuscula != 'p' && minuscula != 'r') {
+            return 0;
+        }
+
+        for (char[] palabra : PALABRAS_SQL) {
+            int desde = largo - palabra.length;
+            if (desde < barrera || palabra[palabra.length - 1] != minuscula) {
+                continue;
+            }
+            boolean coincide = true;
+            for (int k = 0; k < palabra.length - 1; k++) {
+                if (minusculaAscii(salida[desde + k]) != palabra[k]) {
+                    coincide = false;
+                    break;
+                }
+            }
+            if (coincide) {
+                return palabra.length;
+            }
+        }
+        return 0;
+    }
+
+    // \s de java.util.regex sin UNICODE_CHARACTER_CLASS: [ \t\n\x0B\f\r]
+    private static boolean esEspacioRegex(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    // (?i) sin UNICODE_CASE solo pliega mayúsculas US-ASCII
+    private static char minusculaAscii(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+}
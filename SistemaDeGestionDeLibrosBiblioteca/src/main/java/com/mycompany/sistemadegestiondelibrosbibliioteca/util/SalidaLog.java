@@ -0,0 +1,11 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.util;
+
+// SalidaLog - Destino de los mensajes ya formateados por Log
+public interface SalidaLog {
+
+    // escribir - Publicar una línea; no debe bloquear al hilo que registra
+    void escribir(NivelLog nivel, String linea);
+
+    // vaciar - Esperar a que se publique lo pendiente
+    void vaciar();
+}
@@ -0,0 +1,102 @@
+package com.mycompany.sistemadegestiondelibrosbibliioteca.util;
+
+import java.io.PrintStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SalidaLogAsincrona - Escribe en consola desde un hilo propio
+ * Los hilos de la aplicación solo encolan (offer sin espera); si la cola está llena
+ * el mensaje se descarta y se cuenta, nunca se bloquea al llamador.
+ */
+public class SalidaLogAsincrona implements SalidaLog {
+
+    private final BlockingQueue<Linea> cola;
+    private final AtomicLong descartados = new AtomicLong();
+    private final Thread escritor;
+
+    public SalidaLogAsincrona(int capacidad) {
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.escritor = new Thread(this::escribirPendientes, "log-asincrono");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::vaciar, "log-asincrono-cierre"));
+    }
+
+    @Override
+    public void escribir(NivelLog nivel, String linea) {
+        if (!cola.offer(new Linea(nivel, linea, false))) {
+            descartados.incrementAndGet();
+        }
+    }
+
+    /**
+     * Esperar (como máximo 2 s) a que el hilo escritor publique lo encolado
+     */
+    @Override
+    public void vaciar() {
+        Linea marca = new Linea(NivelLog.TRACE, "", true);
+        try {
+            if (cola.offer(marca, 2, TimeUnit.SECONDS)) {
+                synchronized (marca) {
+                    long limite = System.currentTimeMillis() + 2000;
+                    while (!marca.publicada && System.currentTimeMillis() < limite) {
+                        marca.wait(100);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    public int getPendientes() {
+        return cola.size();
+    }
+
+    private void escribirPendientes() {
+        while (true) {
+            Linea linea;
+            try {
+                linea = cola.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            if (linea.esMarca) {
+                // Marca de vaciado: todo lo anterior ya está escrito
+                long perdidos = descartados.getAndSet(0);
+                if (perdidos > 0) {
+                    System.err.println("[log] " + perdidos + " mensajes descartados por cola llena");
+                }
+                synchronized (linea) {
+                    linea.publicada = true;
+                    linea.notifyAll();
+                }
+                continue;
+            }
+
+            PrintStream destino = linea.nivel.ordinal() <= NivelLog.WARN.ordinal() ? System.err : System.out;
+            destino.println(linea.texto);
+        }
+    }
+
+    private static final class Linea {
+        final NivelLog nivel;
+        final String texto;
+        final boolean esMarca;
+        boolean publicada = false;
+
+        Linea(NivelLog nivel, String texto, boolean esMarca) {
+            this.nivel = nivel;
+            this.texto = texto;
+            this.esMarca = esMarca;
+        }
+    }
+}
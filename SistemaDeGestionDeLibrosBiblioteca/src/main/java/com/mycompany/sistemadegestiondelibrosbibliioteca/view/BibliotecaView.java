@@ -9,10 +9,19 @@ package com.mycompany.sistemadegestiondelibrosbibliioteca.view;
  * @author gian_
  */
 import com.mycompany.sistemadegestiondelibrosbibliioteca.controller.LibroController;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.metricas.InstantaneaOperacion;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ConteoAno;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ConteoAutor;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Estadisticas;
 import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.LibroDTO;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.ResumenDisponibilidad;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Pagina;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dto.Sugerencia;
 import java.util.InputMismatchException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Scanner;
+import java.util.stream.Stream;
 
 /**
  * BibliotecaView - Capa de presentación MVC
@@ -68,6 +77,140 @@ public class BibliotecaView {
         System.out.println();
     }
 
+    /**
+     * Muestra los resultados de una búsqueda, los más relevantes primero
+     */
+    public void mostrarResultadosBusqueda(String consulta, List<LibroDTO> libros) {
+        System.out.println("HTTP 200 OK");
+        System.out.println("Resultados para '" + consulta + "': " + libros.size());
+        System.out.println();
+
+        if (libros.isEmpty()) {
+            System.out.println("No se encontraron libros.");
+        } else {
+            for (LibroDTO libro : libros) {
+                System.out.println("ID: " + libro.getId() +
+                        " | Título: " + libro.getTitulo() +
+                        " | Autor: " + libro.getAutor() +
+                        " | Año: " + libro.getAnoPublicacion());
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Muestra las compleciones de un prefijo
+     */
+    public void mostrarSugerencias(String prefijo, List<Sugerencia> sugerencias) {
+        if (sugerencias.isEmpty()) {
+            System.out.println("Sin sugerencias para '" + prefijo + "'");
+            return;
+        }
+        for (Sugerencia sugerencia : sugerencias) {
+            System.out.println("  " + sugerencia.texto() + " (" + sugerencia.campo().name().toLowerCase()
+                    + ", " + sugerencia.libros() + (sugerencia.libros() == 1 ? " libro)" : " libros)"));
+        }
+    }
+
+    /**
+     * Muestra una lista de libros a medida que llega (sin conocer el total de antemano)
+     */
+    public void mostrarListaLibros(Stream<LibroDTO> libros) {
+        System.out.println("HTTP 200 OK");
+        System.out.println("Lista de todos los libros:");
+        System.out.println();
+
+        long total = 0;
+        for (Iterator<LibroDTO> it = libros.iterator(); it.hasNext(); ) {
+            LibroDTO libro = it.next();
+            System.out.println("ID: " + libro.getId() +
+                    " | Título: " + libro.getTitulo() +
+                    " | Autor: " + libro.getAutor() +
+                    " | Año: " + libro.getAnoPublicacion());
+            total++;
+        }
+
+        if (total == 0) {
+            System.out.println("No hay libros en el sistema.");
+        }
+        System.out.println();
+        System.out.println("Total de libros: " + total);
+        System.out.println();
+    }
+
+    /**
+     * Muestra una página de libros
+     */
+    public void mostrarPaginaLibros(Pagina<LibroDTO> pagina) {
+        System.out.println("HTTP 200 OK");
+        System.out.println("Libros en esta página: " + pagina.getElementos().size());
+        System.out.println();
+
+        for (LibroDTO libro : pagina.getElementos()) {
+            System.out.println("ID: " + libro.getId() +
+                    " | Título: " + libro.getTitulo() +
+                    " | Autor: " + libro.getAutor() +
+                    " | Año: " + libro.getAnoPublicacion());
+        }
+
+        if (!pagina.hayMas()) {
+            System.out.println("(Última página)");
+        }
+        System.out.println();
+    }
+
+    /**
+     * Muestra las métricas por operación (latencias en microsegundos)
+     */
+    public void mostrarMetricas(List<InstantaneaOperacion> metricas) {
+        System.out.println("HTTP 200 OK");
+        System.out.println("Métricas por operación (µs):");
+        System.out.println();
+
+        if (metricas.isEmpty()) {
+            System.out.println("Aún no hay operaciones registradas.");
+        } else {
+            System.out.println(String.format("%-20s %10s %8s %10s %10s %10s %10s %10s",
+                    "Operación", "Total", "Errores", "Media", "p50", "p99", "p999", "Máx"));
+            for (InstantaneaOperacion m : metricas) {
+                System.out.println(String.format("%-20s %10d %8d %10.1f %10.1f %10.1f %10.1f %10.1f",
+                        m.nombre(), m.total(), m.errores(), m.mediaMicros(),
+                        m.p50Micros(), m.p99Micros(), m.p999Micros(), m.maximoMicros()));
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Muestra las estadísticas del catálogo con el histograma por año en barras de texto
+     */
+    public void mostrarEstadisticas(Estadisticas estadisticas) {
+        ResumenDisponibilidad disponibilidad = estadisticas.disponibilidad();
+        System.out.println("HTTP 200 OK");
+        System.out.println("Total de libros: " + disponibilidad.total()
+                + " | Disponibles: " + disponibilidad.disponibles()
+                + " | Prestados: " + disponibilidad.prestados());
+        System.out.println();
+
+        System.out.println("Autores con más libros:");
+        for (ConteoAutor autor : estadisticas.autores()) {
+            System.out.println(String.format("  %-40s %8d libros %8d disponibles",
+                    autor.autor(), autor.libros(), autor.disponibles()));
+        }
+        System.out.println();
+
+        System.out.println("Libros por año de publicación:");
+        long maximo = 1;
+        for (ConteoAno ano : estadisticas.anos()) {
+            maximo = Math.max(maximo, ano.libros());
+        }
+        for (ConteoAno ano : estadisticas.anos()) {
+            System.out.println(String.format("  %4d %8d %s",
+                    ano.ano(), ano.libros(), "#".repeat((int) Math.max(1, ano.libros() * 40 / maximo))));
+        }
+        System.out.println();
+    }
+
     /**
      * Muestra errores HTTP
      */
@@ -100,15 +243,27 @@ public class BibliotecaView {
                         ejecutarListarLibros(controller);
                         break;
                     case 4:
+                        ejecutarListarPaginado(controller);
+                        break;
+                    case 5:
+                        controller.mostrarMetricas();
+                        break;
+                    case 6:
+                        ejecutarBusquedaTexto(controller);
+                        break;
+                    case 7:
+                        controller.mostrarEstadisticas(10);
+                        break;
+                    case 8:
                         continuar = false;
                         System.out.println("Saliendo del sistema...");
                         break;
                     default:
-                        System.out.println("Opción inválida. Seleccione 1-4");
+                        System.out.println("Opción inválida. Seleccione 1-8");
                         break;
                 }
 
-                if (continuar && opcion >= 1 && opcion <= 3) {
+                if (continuar && opcion >= 1 && opcion <= 7) {
                     System.out.println("Presione Enter para continuar...");
                     scanner.nextLine();
                 }
@@ -192,7 +347,11 @@ public class BibliotecaView {
         System.out.println("1. Buscar libro por ID");
         System.out.println("2. Agregar nuevo libro");
         System.out.println("3. Mostrar todos los libros");
-        System.out.println("4. Salir");
+        System.out.println("4. Mostrar libros por páginas");
+        System.out.println("5. Ver métricas");
+        System.out.println("6. Buscar por título o autor");
+        System.out.println("7. Ver estadísticas");
+        System.out.println("8. Salir");
         System.out.print("Seleccione una opción: ");
     }
 
@@ -219,7 +378,9 @@ public class BibliotecaView {
             case 201: return "CREATED";
             case 400: return "BAD REQUEST";
             case 404: return "NOT FOUND";
+            case 409: return "CONFLICT";
             case 500: return "INTERNAL SERVER ERROR";
+            case 503: return "SERVICE UNAVAILABLE";
             default: return "UNKNOWN";
         }
     }
@@ -230,4 +391,57 @@ public class BibliotecaView {
         // El Controller maneja Model y View
         controller.listarTodosLosLibros();
     }
-}
\ No newline at end of file
+
+    /**
+     * Listar libros página a página - GET /libros?orden=...&token=...
+     */
+    private void ejecutarListarPaginado(LibroController controller) {
+        System.out.println("=== Listar libros por páginas ===");
+
+        System.out.print("Ordenar por (id/titulo/autor) [id]: ");
+        String orden = scanner.nextLine().trim();
+
+        System.out.print("Libros por página [10]: ");
+        String tamanoStr = scanner.nextLine().trim();
+
+        int tamano = 10;
+        if (!tamanoStr.isEmpty()) {
+            try {
+                tamano = Integer.parseInt(tamanoStr);
+            } catch (NumberFormatException e) {
+                mostrarError(400, "Tamaño inválido. Debe ser un número entero.");
+                return;
+            }
+        }
+
+        // El Controller devuelve el token de la página siguiente
+        String token = controller.listarLibrosPaginados(orden, null, tamano);
+        while (token != null) {
+            System.out.print("Enter para la página siguiente, 'q' para terminar: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                break;
+            }
+            token = controller.listarLibrosPaginados(orden, token, tamano);
+        }
+    }
+
+    /**
+     * Buscar por texto - GET /libros?q={texto}
+     */
+    private void ejecutarBusquedaTexto(LibroController controller) {
+        System.out.println("=== Buscar por título o autor ===");
+
+        // Terminar en '?' pide sugerencias para completar en lugar de buscar
+        System.out.print("Palabras a buscar (termine en ? para sugerencias): ");
+        String consulta = scanner.nextLine().trim();
+
+        while (consulta.endsWith("?")) {
+            controller.autocompletar(consulta.substring(0, consulta.length() - 1), 8);
+            System.out.print("Palabras a buscar: ");
+            consulta = scanner.nextLine().trim();
+        }
+
+        // El Controller maneja Model y View
+        controller.buscarLibros(consulta, 20);
+    }
+}
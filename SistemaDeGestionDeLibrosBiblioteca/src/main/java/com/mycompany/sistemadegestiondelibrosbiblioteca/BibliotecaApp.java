@@ -9,16 +9,24 @@ package com.mycompany.sistemadegestiondelibrosbiblioteca;
  * @author gian_
  */
 import com.mycompany.sistemadegestiondelibrosbibliioteca.config.DatabaseConfig;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.controller.LibroControllerAsync;
+import com.mycompany.sistemadegestiondelibrosbibliioteca.http.ServidorHttp;
 import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.ILibroDAO;
 import com.mycompany.sistemadegestiondelibrosbibliioteca.model.dao.LibroDAOImpl;
 import com.mycompany.sistemadegestiondelibrosbibliioteca.model.entity.Libro;
 
 /**
  * BibliotecaApp - Demostración JDBC
+ * Con el argumento "servidor [puerto]" arranca el servidor HTTP/JSON en su lugar
  */
 public class BibliotecaApp {
 
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("servidor")) {
+            iniciarServidor(args.length > 1 ? Integer.parseInt(args[1]) : ServidorHttp.PUERTO_DEFECTO);
+            return;
+        }
+
         try {
             DatabaseConfig.inicializar();
 
@@ -70,4 +78,22 @@ public class BibliotecaApp {
             DatabaseConfig.cerrarConexion();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Servidor HTTP como servicio: corre hasta que se detiene la JVM
+     */
+    private static void iniciarServidor(int puerto) {
+        try {
+            DatabaseConfig.inicializar();
+            ServidorHttp servidor = new ServidorHttp(puerto, new LibroControllerAsync());
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                servidor.close();
+                DatabaseConfig.cerrarConexion();
+            }, "apagado-servidor"));
+            servidor.iniciar();
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            DatabaseConfig.cerrarConexion();
+        }
+    }
+}